@@ -0,0 +1,85 @@
+package jtop.system.linux;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Measures how {@link ProcessCollector} scales with the number of processes and threads.
+ * <p>
+ * Hosts rarely run 100k processes, so the entry lists are synthetic: the real
+ * PIDs of <code>/proc</code> repeated until the list has the requested size.
+ * Every entry is read in full, exactly as in a refresh, but since the same
+ * files are read repeatedly the kernel side is warmer than on a real host
+ * with that many processes.
+ * </p>
+ * <p>
+ * Each size is collected with a parallelism of 1, 2 and 4, then with powers of
+ * two up to the number of available cores and with the number of cores itself,
+ * and the speedup is reported against the serial run. With fewer cores than
+ * threads the benchmark only shows the overhead of splitting.
+ * </p>
+ * <p>
+ * Usage: {@code ./build.sh bench jtop.system.linux.CollectorScaling [sizes]},
+ * with comma-separated sizes, default {@code 1000,10000,100000}.
+ * </p>
+ */
+public class CollectorScaling {
+
+	public static void main(String[] args) {
+		String sizes = args.length > 0 ? args[0] : "1000,10000,100000";
+
+		List<String> pids = new ArrayList<>();
+		for (String entry : new File("/proc").list()) {
+			if (!entry.isEmpty() && entry.chars().allMatch(Character::isDigit)) {
+				pids.add(entry);
+			}
+		}
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		TreeSet<Integer> levels = new TreeSet<>();
+		for (int p = 1; p <= Math.max(4, cores); p *= 2) {
+			levels.add(p);
+		}
+		levels.add(cores);
+
+		System.out.printf("%d real processes, %d cores%n", pids.size(), cores);
+		System.out.printf("%8s %8s %12s %8s%n", "entries", "threads", "ms/collect", "speedup");
+		for (String size : sizes.split(",")) {
+			int count = Integer.parseInt(size.trim());
+			String[] entries = new String[count];
+			for (int i = 0; i < count; i++) {
+				entries[i] = pids.get(i % pids.size());
+			}
+
+			double serial = 0;
+			for (int parallelism : levels) {
+				ProcessCollector collector = new ProcessCollector();
+				collector.setParallelism(parallelism);
+				double millis = measure(collector, entries);
+				if (parallelism == 1) serial = millis;
+				System.out.printf("%8d %8d %12.1f %7.2fx%n", count, parallelism, millis, serial / millis);
+				// release the worker pool before the next level
+				collector.setParallelism(1);
+			}
+		}
+	}
+
+	/**
+	 * Returns the mean time of one collection, after warming up.
+	 */
+	private static double measure(ProcessCollector collector, String[] entries) {
+		// about 100k process reads per level, whatever the size
+		int repetitions = Math.max(3, 100_000 / entries.length);
+		for (int i = 0; i < Math.max(3, repetitions / 2); i++) {
+			collector.collect(entries);
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < repetitions; i++) {
+			collector.collect(entries);
+		}
+		return (System.nanoTime() - start) / 1e6 / repetitions;
+	}
+}
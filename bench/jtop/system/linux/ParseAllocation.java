@@ -0,0 +1,149 @@
+package jtop.system.linux;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sun.management.ThreadMXBean;
+
+import jtop.system.ProcessStat;
+
+/**
+ * Measures the bytes allocated per refresh when parsing <code>/proc</code>.
+ * <p>
+ * Compares two ways of collecting every process on this host:
+ * </p>
+ * <ul>
+ *	 <li>{@code before}: the String-based parsing that {@link ProcessCollector} used before
+ *		 {@link ProcReader}, with {@code Files.readString}, {@code String.split} and a {@code BufferedReader}</li>
+ *	 <li>{@code after}: {@link ProcessCollector} itself, collecting serially; it also
+ *		 reads <code>/proc/[pid]/io</code> where permitted, which the old parser did not</li>
+ * </ul>
+ * <p>
+ * Both run on the calling thread, so {@link ThreadMXBean#getThreadAllocatedBytes(long)}
+ * sees every allocation. Each variant is warmed up with the same number of
+ * refreshes before it is measured.
+ * </p>
+ * <p>
+ * Usage: {@code ./build.sh bench jtop.system.linux.ParseAllocation [refreshes]}, default 200.
+ * </p>
+ */
+public class ParseAllocation {
+
+	private static final File PROC = new File("/proc");
+
+	public static void main(String[] args) throws IOException {
+		int refreshes = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threads.isThreadAllocatedMemorySupported()) {
+			System.err.println("Thread allocation counters are not supported by this JVM");
+			System.exit(1);
+		}
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		ProcessCollector collector = new ProcessCollector();
+		collector.setParallelism(1);
+
+		System.out.printf("%-8s %10s %14s %14s %10s%n", "variant", "processes", "bytes/refresh", "bytes/process", "ms/refresh");
+		measure("before", refreshes, threads, ParseAllocation::collectLegacy);
+		measure("after", refreshes, threads, collector::collect);
+	}
+
+	private interface Refresh {
+		List<ProcessStat> run() throws IOException;
+	}
+
+	private static void measure(String variant, int refreshes, ThreadMXBean threads, Refresh refresh) throws IOException {
+		for (int i = 0; i < refreshes; i++) {
+			refresh.run();
+		}
+
+		long thread = Thread.currentThread().threadId();
+		long processes = 0;
+		long bytes = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		for (int i = 0; i < refreshes; i++) {
+			processes += refresh.run().size();
+		}
+		long elapsed = System.nanoTime() - start;
+		bytes = threads.getThreadAllocatedBytes(thread) - bytes;
+
+		System.out.printf("%-8s %10d %,14d %,14d %10.2f%n", variant, processes / refreshes, bytes / refreshes,
+				bytes / Math.max(1, processes), elapsed / 1e6 / refreshes);
+	}
+
+	/**
+	 * Collects all processes the way {@link ProcessCollector} did before {@link ProcReader}.
+	 */
+	private static List<ProcessStat> collectLegacy() throws IOException {
+		String[] entries = PROC.list();
+		if (entries == null) {
+			throw new IOException("Cannot list " + PROC);
+		}
+
+		List<ProcessStat> stats = new ArrayList<>(entries.length);
+		for (String entry : entries) {
+			if (entry.isEmpty() || !entry.chars().allMatch(Character::isDigit)) continue;
+
+			ProcessStat stat = readLegacy(Long.parseLong(entry));
+			if (stat != null) {
+				stats.add(stat);
+			}
+		}
+		return stats;
+	}
+
+	private static ProcessStat readLegacy(long pid) {
+		Path dir = Path.of("/proc", Long.toString(pid));
+		try {
+			String stat = Files.readString(dir.resolve("stat"));
+
+			int open = stat.indexOf('(');
+			int close = stat.lastIndexOf(')');
+			if (open < 0 || close < open) return null;
+
+			String name = stat.substring(open + 1, close);
+			String[] fields = stat.substring(close + 2).split(" ");
+			if (fields.length < 22) return null;
+
+			char state = fields[0].isEmpty() ? '?' : fields[0].charAt(0);
+			long ppid = Long.parseLong(fields[1]);
+			long utime = Long.parseLong(fields[11]);
+			long stime = Long.parseLong(fields[12]);
+			int threads = Integer.parseInt(fields[17]);
+			long startTime = Long.parseLong(fields[19]);
+			long vsize = Long.parseLong(fields[20]);
+
+			String statm = Files.readString(dir.resolve("statm"));
+			int start = statm.indexOf(' ') + 1;
+			int end = statm.indexOf(' ', start);
+			long rssPages = Long.parseLong(end < 0 ? statm.substring(start).trim() : statm.substring(start, end));
+
+			int uid = -1;
+			try (BufferedReader reader = Files.newBufferedReader(dir.resolve("status"))) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.startsWith("Uid:")) {
+						int i = 4;
+						while (i < line.length() && Character.isWhitespace(line.charAt(i))) i++;
+						uid = 0;
+						while (i < line.length() && Character.isDigit(line.charAt(i))) {
+							uid = uid * 10 + (line.charAt(i++) - '0');
+						}
+						break;
+					}
+				}
+			}
+
+			return new ProcessStat(pid, ppid, name, state, utime, stime, startTime, threads, vsize, rssPages, uid);
+		} catch (IOException | RuntimeException e) {
+			return null;
+		}
+	}
+}
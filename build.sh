@@ -1,6 +1,6 @@
 #!/usr/bin/env bash
 # --- Build script for jtop ---
-# This script compiles Java sources into a JAR.
+# This script compiles Java sources into a JAR, or compiles and runs a benchmark from bench/.
 # If JDK is missing, it prompts the user to install it using the detected package manager.
 
 set -e
@@ -82,6 +82,30 @@ if ! command -v javac >/dev/null 2>&1; then
 	esac
 fi
 
+# --- Benchmarks ---
+# ./build.sh bench <class> [args...] compiles src/ together with bench/ and runs one benchmark
+if [[ "$1" == "bench" ]]; then
+	BENCH_DIR="bench"
+	BENCH_BIN="bench-bin"
+
+	if [[ -z "$2" ]]; then
+		echo "Usage: ./build.sh bench <class> [args...]"
+		echo "Available benchmarks:"
+		find "$BENCH_DIR" -name "*.java" | sed -e "s|^$BENCH_DIR/||" -e 's|\.java$||' -e 's|/|.|g' | sort | sed 's/^/  /'
+		exit 1
+	fi
+
+	echo "Compiling benchmarks..."
+	rm -rf "$BENCH_BIN"
+	mkdir -p "$BENCH_BIN"
+	find "$SRC_DIR" "$BENCH_DIR" -name "*.java" > sources.txt
+	javac -d "$BENCH_BIN" @sources.txt
+	rm sources.txt
+
+	shift
+	exec java -cp "$BENCH_BIN" "$@"
+fi
+
 # --- Build process ---
 echo "Cleaning previous build..."
 rm -rf "$BIN_DIR" "$JAR_FILE"
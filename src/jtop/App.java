@@ -1,11 +1,14 @@
 package jtop;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import jtop.config.Config;
 import jtop.core.InfoType;
 import jtop.core.RefreshThread;
 import jtop.core.ShowProcesses;
+import jtop.record.Player;
+import jtop.record.RecordReader;
 import jtop.terminal.InputHandler;
 import jtop.terminal.TerminalSize;
 
@@ -36,6 +39,12 @@ public class App {
 	/** Shared flag for synchronizing display refreshes. */
 	private final AtomicBoolean refresh = new AtomicBoolean(true);
 
+	/** Recording being replayed, or {@code null} when showing the live system. */
+	private final RecordReader recording;
+
+	/** Drives {@link #showProcesses} from {@link #recording}, or {@code null} when live. */
+	private final Player player;
+
 	/**
 	 * Constructs a new {@code App} instance and initializes the main process display.
 	 * <p>
@@ -44,7 +53,25 @@ public class App {
 	 * </p>
 	 */
 	public App() {
-		showProcesses = new ShowProcesses(
+		showProcesses = createShowProcesses();
+		recording = null;
+		player = null;
+	}
+
+	/**
+	 * Constructs an {@code App} that replays a recording instead of showing the live system.
+	 *
+	 * @param recordingPath a file written by {@code --record}
+	 * @throws IOException if the recording cannot be opened
+	 */
+	public App(Path recordingPath) throws IOException {
+		showProcesses = createShowProcesses();
+		recording = new RecordReader(recordingPath);
+		player = new Player(recording, showProcesses, config);
+	}
+
+	private static ShowProcesses createShowProcesses() {
+		return new ShowProcesses(
 			InfoType.PID,
 			InfoType.NAME,
 			InfoType.USER,
@@ -73,19 +100,33 @@ public class App {
 		enableMouseReporting();
 
 		try {
-			showProcesses.draw(); // initial draw
-
-			// Start background refresh
-			Thread refreshThread = new RefreshThread(showProcesses, refresh);
+			if (player != null) {
+				player.refresh(); // initial draw of the first recorded frame
+			} else {
+				showProcesses.draw(); // initial draw
+			}
+
+			// Redraw immediately when the terminal is resized
+			TerminalSize.addResizeListener(() -> {
+				try {
+					showProcesses.draw();
+				} catch (Exception ignored) {}
+			});
+
+			// Start background refresh; a replay advances in shorter steps so speed-up stays smooth
+			Thread refreshThread = player != null
+					? new RefreshThread(player, refresh, Player.TICK_MILLIS)
+					: new RefreshThread(showProcesses, refresh);
 			refreshThread.setDaemon(true);
 			refreshThread.start();
 
 			// Handle user input
-			new InputHandler(showProcesses, refresh, terminalSize).start();
+			new InputHandler(showProcesses, refresh, terminalSize, player).start();
 
 		} finally {
 			disableMouseReporting();
 			restoreTerminal();
+			if (recording != null) recording.close();
 		}
 	}
 
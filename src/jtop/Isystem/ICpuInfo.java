@@ -1,5 +1,10 @@
 package jtop.Isystem;
 
+import java.util.List;
+
+import jtop.system.CpuTimes;
+import jtop.system.ProcessStat;
+
 /**
  * Interface for retrieving CPU usage information in a cross-platform way.
  * <p>
@@ -15,6 +20,49 @@ public interface ICpuInfo {
      */
     double getCpuPercent(long pid);
 
+    /**
+     * Computes the CPU usage percentage of a process from an already collected snapshot.
+     * <p>
+     * The default implementation falls back to {@link #getCpuPercent(long)}.
+     *
+     * @param stat the process snapshot
+     * @return CPU usage as a percentage, or -1 if unavailable
+     */
+    default double getCpuPercent(ProcessStat stat) {
+        return getCpuPercent(stat.pid());
+    }
+
+    /**
+     * Feeds one refresh worth of process snapshots into the implementation.
+     * <p>
+     * Stateful implementations use this to compute per-interval utilization;
+     * it must be called once per refresh before the per-process getters.
+     * The default implementation does nothing.
+     *
+     * @param stats all processes collected in this refresh
+     */
+    default void sampleProcesses(List<ProcessStat> stats) {}
+
+    /**
+     * Returns the user-mode CPU percentage of a process over the last sample interval.
+     *
+     * @param stat the process snapshot
+     * @return user CPU usage as a percentage, or -1 if unavailable
+     */
+    default double getUserPercent(ProcessStat stat) {
+        return -1;
+    }
+
+    /**
+     * Returns the kernel-mode CPU percentage of a process over the last sample interval.
+     *
+     * @param stat the process snapshot
+     * @return system CPU usage as a percentage, or -1 if unavailable
+     */
+    default double getSystemPercent(ProcessStat stat) {
+        return -1;
+    }
+
     /**
      * Retrieves the system load average.
      *
@@ -29,4 +77,16 @@ public interface ICpuInfo {
      * @return the CPU usage as a percentage over the sample period, or -1 if unavailable
      */
     double getCpuUsage(long sampleMs);
+
+    /**
+     * Reads the cumulative system-wide CPU time counters without sampling delay.
+     * <p>
+     * Callers compute utilization from two snapshots taken at different times,
+     * see {@link CpuTimes#utilization(CpuTimes)}.
+     *
+     * @return the current counters, or null if unavailable
+     */
+    default CpuTimes readCpuTimes() {
+        return null;
+    }
 }
@@ -3,6 +3,8 @@ package jtop.Isystem;
 import java.io.IOException;
 import java.util.Map;
 
+import jtop.system.DiskStats;
+
 /**
  * Interface for providing information about disk usage and I/O statistics for mounted devices.
  * <p>
@@ -28,4 +30,18 @@ public interface IDiskInfo {
      * @throws IOException if disk statistics cannot be read
      */
     Map<String, long[]> getDiskStats() throws IOException;
+
+    /**
+     * Reads the cumulative I/O counters of all whole disks.
+     * <p>
+     * Partitions are left out so their I/O is not counted twice. Pass two
+     * snapshots to {@link DiskStats#rates(DiskStats)} to obtain throughput,
+     * IOPS, latency and utilization.
+     * </p>
+     *
+     * @return the counters, or {@code null} if not supported on this platform
+     */
+    default DiskStats readDiskStats() {
+        return null;
+    }
 }
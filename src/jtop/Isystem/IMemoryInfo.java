@@ -2,6 +2,8 @@ package jtop.Isystem;
 
 import java.io.IOException;
 
+import jtop.system.ProcessStat;
+
 /**
  * Provides methods to gather memory usage statistics.
  * <p>
@@ -24,6 +26,20 @@ public interface IMemoryInfo {
 	 */
 	double getMemoryPercent(long pid) throws IOException;
 
+	/**
+	 * Returns the memory usage percentage of a process from an already collected snapshot.
+	 * <p>
+	 * The default implementation falls back to {@link #getMemoryPercent(long)}.
+	 * </p>
+	 *
+	 * @param stat the process snapshot
+	 * @return memory usage percentage of the process
+	 * @throws IOException if system memory totals cannot be read
+	 */
+	default double getMemoryPercent(ProcessStat stat) throws IOException {
+		return getMemoryPercent(stat.pid());
+	}
+
 	/**
 	 * Returns the overall memory usage percentage of the system.
 	 *
@@ -3,6 +3,8 @@ package jtop.Isystem;
 import java.io.IOException;
 import java.util.Map;
 
+import jtop.system.NetworkStats;
+
 /**
  * Provides methods to collect network usage statistics.
  * <p>
@@ -24,4 +26,44 @@ public interface INetworkInfo {
 	 * @throws IOException if /proc/net/dev cannot be read
 	 */
 	Map<String, long[]> getNetworkUsage() throws IOException;
+
+	/**
+	 * Reads the cumulative byte, packet, error and drop counters of all interfaces.
+	 * <p>
+	 * Pass two snapshots to {@link NetworkStats#rates(NetworkStats)} to obtain
+	 * per-second rates.
+	 * </p>
+	 *
+	 * @return the counters, or {@code null} if not supported on this platform
+	 */
+	default NetworkStats readNetworkStats() {
+		return null;
+	}
+
+	/**
+	 * Retrieves the network usage of all interfaces visible to a process.
+	 * <p>
+	 * Differs from {@link #getNetworkUsage()} when the process runs in another
+	 * network namespace, e.g. inside a container.
+	 * </p>
+	 *
+	 * @param pid the process ID
+	 * @return the usage per interface, in the format of {@link #getNetworkUsage()};
+	 *		 empty if not supported on this platform
+	 * @throws IOException if the counters of the process cannot be read
+	 */
+	default Map<String, long[]> getNetworkUsage(long pid) throws IOException {
+		return Map.of();
+	}
+
+	/**
+	 * Returns the network namespace a process belongs to.
+	 *
+	 * @param pid the process ID
+	 * @return the inode number identifying the namespace, or -1 if unknown
+	 *		 or not supported on this platform
+	 */
+	default long getNamespace(long pid) {
+		return -1;
+	}
 }
\ No newline at end of file
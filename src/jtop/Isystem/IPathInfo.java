@@ -1,5 +1,7 @@
 package jtop.Isystem;
 
+import jtop.system.ProcessStat;
+
 /**
  * Provides utilities to retrieve process path information.
  * <p>
@@ -30,4 +32,30 @@ public interface IPathInfo {
 	 * @return the full command path, or "Unknown" if the process does not exist
 	 */
 	String getPath(long pid);
+
+	/**
+	 * Returns the name of the executable for an already collected process snapshot.
+	 * <p>
+	 * The default implementation falls back to {@link #getName(long)}.
+	 * </p>
+	 *
+	 * @param stat the process snapshot
+	 * @return the executable name, or "Unknown" if it cannot be determined
+	 */
+	default String getName(ProcessStat stat) {
+		return getName(stat.pid());
+	}
+
+	/**
+	 * Returns the full command path for an already collected process snapshot.
+	 * <p>
+	 * The default implementation falls back to {@link #getPath(long)}.
+	 * </p>
+	 *
+	 * @param stat the process snapshot
+	 * @return the full command path, or "Unknown" if it cannot be determined
+	 */
+	default String getPath(ProcessStat stat) {
+		return getPath(stat.pid());
+	}
 }
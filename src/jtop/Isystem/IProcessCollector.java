@@ -0,0 +1,38 @@
+package jtop.Isystem;
+
+import java.io.IOException;
+import java.util.List;
+
+import jtop.system.ProcessStat;
+
+/**
+ * Enumerates all running processes in a single pass.
+ * <p>
+ * Implementations gather everything the process table needs for one refresh
+ * into immutable {@link ProcessStat} records, so that per-column lookups do not
+ * have to query the operating system again.
+ * </p>
+ */
+public interface IProcessCollector {
+
+	/**
+	 * Collects a snapshot of every process currently visible to jtop.
+	 * <p>
+	 * Processes that exit while the snapshot is being taken are silently skipped.
+	 * </p>
+	 *
+	 * @return a mutable list with one record per process, in no particular order
+	 * @throws IOException if the process list itself cannot be read
+	 */
+	List<ProcessStat> collect() throws IOException;
+
+	/**
+	 * Sets how many threads may read process information concurrently.
+	 * <p>
+	 * Implementations that cannot collect in parallel ignore this setting.
+	 * </p>
+	 *
+	 * @param parallelism the maximum number of threads, or 0 to use one per available core
+	 */
+	default void setParallelism(int parallelism) {}
+}
@@ -1,5 +1,14 @@
 package jtop;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import jtop.config.Config;
+import jtop.export.BatchExporter;
+import jtop.export.MetricsServer;
+import jtop.record.Recorder;
+import jtop.system.SystemInfoFactory;
+
 /**
  * Entry point for the jtop system monitoring application.
  * <p>
@@ -14,10 +23,68 @@ public class Main {
      * Initializes all necessary components, including process monitoring,
      * terminal rendering, and input handling.
      *
-     * @param args Command-line arguments (currently ignored)
+     * Supported arguments:
+     * <ul>
+     *     <li>{@code --startup-report} prints the initialization time of every
+     *     system feature and exits</li>
+     *     <li>{@code --record <file>} records snapshots to a file without a
+     *     terminal until the process is stopped</li>
+     *     <li>{@code --replay <file>} shows a recording instead of the live
+     *     system</li>
+     *     <li>{@code --batch [options]} writes CSV, TSV or NDJSON snapshots to
+     *     standard output without using the terminal, see {@link BatchExporter#USAGE}</li>
+     *     <li>{@code --serve [[host]:port]} serves OpenMetrics on {@code /metrics}
+     *     without using the terminal, by default on {@code :9100}</li>
+     * </ul>
+     *
+     * @param args Command-line arguments
      * @throws Exception If system information cannot be read or if thread operations fail
      */
     public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--startup-report")) {
+            SystemInfoFactory.printInitReport(System.out);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--record")) {
+            if (args.length < 2) {
+                System.err.println("Usage: jtop --record <file>");
+                System.exit(2);
+            }
+            new Recorder(Path.of(args[1])).run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchExporter exporter = null;
+            try {
+                exporter = new BatchExporter(new Config(), Arrays.copyOfRange(args, 1, args.length));
+            } catch (IllegalArgumentException e) {
+                System.err.println("jtop: " + e.getMessage());
+                System.err.println(BatchExporter.USAGE);
+                System.exit(2);
+            }
+            exporter.run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            MetricsServer server = null;
+            try {
+                server = new MetricsServer(args.length > 1 ? args[1] : MetricsServer.defaultAddress());
+            } catch (IllegalArgumentException e) {
+                System.err.println("jtop: " + e.getMessage());
+                System.err.println("Usage: jtop --serve [[host]:port]");
+                System.exit(2);
+            }
+            server.run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--replay")) {
+            if (args.length < 2) {
+                System.err.println("Usage: jtop --replay <file>");
+                System.exit(2);
+            }
+            new App(Path.of(args[1])).run();
+            return;
+        }
         new App().run();
     }
 }
\ No newline at end of file
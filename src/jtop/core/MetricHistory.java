@@ -0,0 +1,381 @@
+package jtop.core;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import jtop.system.DiskStats;
+import jtop.system.NetworkStats;
+import jtop.system.linux.SystemSampler;
+import jtop.util.CompressedBlock;
+
+/**
+ * Long-term history of system-wide metrics within a fixed memory budget.
+ * <p>
+ * Every refresh appends one sample of each {@link Series} to two kinds of storage:
+ * </p>
+ * <ul>
+ *	 <li>Raw samples, encoded in {@link CompressedBlock}s of {@link #BLOCK_ROWS} rows</li>
+ *	 <li>Rollup tiers at 1 s, 10 s, 1 min and 10 min resolution, each bucket
+ *		 keeping the minimum, maximum and average of the samples it covers</li>
+ * </ul>
+ * <p>
+ * Half of the budget goes to raw samples and an eighth to each tier. When a
+ * store is full, its oldest data is dropped, so the coarse tiers reach back
+ * much further than the fine ones. {@link #query} reads from the store whose
+ * resolution best fits the requested time per column.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Tiers are ring buffers of primitive arrays allocated once from the budget</li>
+ *	 <li>A steady sample interval and slowly changing values take a few bits per sample</li>
+ *	 <li>Recording is O(series) and allocates only when a raw block fills up</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is thread-safe; the refresh thread records while the input thread draws.
+ * </p>
+ */
+public class MetricHistory {
+
+	/** The recorded metrics, in storage column order. */
+	public enum Series {
+		CPU("CPU %"),
+		MEMORY("Mem %"),
+		LOAD("Load"),
+		DISK_READ("Disk read"),
+		DISK_WRITE("Disk write"),
+		NET_RX("Net rx"),
+		NET_TX("Net tx");
+
+		private final String label;
+
+		Series(String label) {
+			this.label = label;
+		}
+
+		/** @return the name shown in the history view */
+		public String getLabel() { return label; }
+	}
+
+	/** Width of the buckets of each rollup tier, finest first. */
+	private static final long[] TIER_MILLIS = {1_000, 10_000, 60_000, 600_000};
+
+	/** Rows per raw block; a block is the unit in which raw samples are dropped. */
+	private static final int BLOCK_ROWS = 1024;
+
+	/** Source index returned by {@link #query} for raw samples. */
+	public static final int RAW = 0;
+
+	private static final int SERIES = Series.values().length;
+
+	private final long rawBudget;
+	private final ArrayDeque<CompressedBlock> blocks = new ArrayDeque<>();
+	private long sealedBytes;
+	private final Tier[] tiers = new Tier[TIER_MILLIS.length];
+
+	private final double[] values = new double[SERIES];
+
+	// time of the last sample and the interval before it
+	private long lastTime = Long.MIN_VALUE;
+	private long interval;
+
+	/**
+	 * Creates an empty history.
+	 *
+	 * @param budgetBytes the memory to use for all stores together
+	 */
+	public MetricHistory(long budgetBytes) {
+		long budget = Math.max(64 * 1024, budgetBytes);
+		this.rawBudget = budget / 2;
+		for (int t = 0; t < tiers.length; t++) {
+			tiers[t] = new Tier(TIER_MILLIS[t], (int) Math.min(Integer.MAX_VALUE / SERIES, budget / 8 / Tier.bytesPerBucket()));
+		}
+	}
+
+	/**
+	 * Records the current values of a sampler.
+	 *
+	 * @param time the wall-clock time in milliseconds
+	 * @param sampler the sampler, refreshed just before
+	 */
+	public synchronized void record(long time, SystemSampler sampler) {
+		sample(sampler, values);
+		record(time, values);
+	}
+
+	/**
+	 * Reads the current value of every series from a sampler.
+	 * <p>
+	 * Disk and network rates are summed over all devices and interfaces,
+	 * loopback excluded since its traffic never leaves the host.
+	 * </p>
+	 *
+	 * @param sampler the sampler
+	 * @param out receives one value per {@link Series}, in ordinal order; NaN if unavailable
+	 */
+	public static void sample(SystemSampler sampler, double[] out) {
+		out[Series.CPU.ordinal()] = sampler.getCpu();
+		out[Series.MEMORY.ordinal()] = sampler.getMem();
+		out[Series.LOAD.ordinal()] = sampler.getLoad();
+		out[Series.DISK_READ.ordinal()] = sumDisk(sampler, DiskStats.READ_BYTES_PER_SEC);
+		out[Series.DISK_WRITE.ordinal()] = sumDisk(sampler, DiskStats.WRITE_BYTES_PER_SEC);
+		out[Series.NET_RX.ordinal()] = sumNetwork(sampler, NetworkStats.RX_BYTES);
+		out[Series.NET_TX.ordinal()] = sumNetwork(sampler, NetworkStats.TX_BYTES);
+	}
+
+	/**
+	 * Records one sample of every series.
+	 *
+	 * @param time the wall-clock time in milliseconds
+	 * @param sample one value per {@link Series}, in ordinal order; NaN if unavailable
+	 */
+	public synchronized void record(long time, double[] sample) {
+		if (lastTime != Long.MIN_VALUE) interval = Math.max(0, time - lastTime);
+		lastTime = time;
+
+		CompressedBlock block = blocks.peekLast();
+		if (block == null || block.isFull()) {
+			if (block != null) {
+				block.seal();
+				sealedBytes += block.sizeBytes();
+			}
+			block = new CompressedBlock(SERIES, BLOCK_ROWS);
+			blocks.addLast(block);
+		}
+		block.append(time, sample);
+
+		// drop whole blocks, oldest first, but never the one being written
+		while (blocks.size() > 1 && sealedBytes + block.sizeBytes() > rawBudget) {
+			sealedBytes -= blocks.removeFirst().sizeBytes();
+		}
+
+		for (Tier tier : tiers) {
+			tier.add(time, sample);
+		}
+	}
+
+	/**
+	 * Aggregates one series into equally wide columns of a time window.
+	 * <p>
+	 * The source is the coarsest store whose resolution is still finer than a
+	 * column and that reaches back to {@code from}. If none reaches back that
+	 * far, the one reaching furthest is used. Columns that fall between two
+	 * samples repeat the earlier one; columns without data are NaN.
+	 * </p>
+	 *
+	 * @param series the series to read
+	 * @param from the start of the window, inclusive, in milliseconds
+	 * @param to the end of the window, exclusive, in milliseconds
+	 * @param min receives the minimum per column; its length is the number of columns
+	 * @param max receives the maximum per column
+	 * @param avg receives the average per column
+	 * @return the source used: {@link #RAW}, or {@code 1 + } the tier index
+	 */
+	public synchronized int query(Series series, long from, long to, double[] min, double[] max, double[] avg) {
+		int columns = avg.length;
+		Arrays.fill(min, Double.NaN);
+		Arrays.fill(max, Double.NaN);
+		Arrays.fill(avg, 0);
+		int[] counts = new int[columns];
+		if (to <= from || columns == 0) return RAW;
+
+		int source = chooseSource((to - from) / columns, from);
+		int s = series.ordinal();
+		if (source == RAW) {
+			for (CompressedBlock block : blocks) {
+				if (block.rows() == 0 || block.lastTime() < from || block.firstTime() >= to) continue;
+				CompressedBlock.Reader reader = block.reader();
+				while (reader.next()) {
+					long time = reader.time();
+					if (time < from || time >= to) continue;
+					double v = reader.value(s);
+					if (!Double.isNaN(v)) {
+						accumulate(column(time, from, to, columns), v, v, v, 1, min, max, avg, counts);
+					}
+				}
+			}
+		} else {
+			Tier tier = tiers[source - 1];
+			for (int i = 0; i < tier.size; i++) {
+				int b = tier.index(i);
+				long start = tier.starts[b];
+				int k = b * SERIES + s;
+				if (start < from || start >= to || tier.count[k] == 0) continue;
+				accumulate(column(start, from, to, columns), tier.min[k], tier.max[k], tier.sum[k], tier.count[k],
+						min, max, avg, counts);
+			}
+		}
+
+		for (int c = 0; c < columns; c++) {
+			avg[c] = counts[c] > 0 ? avg[c] / counts[c] : Double.NaN;
+		}
+
+		// columns narrower than the data's resolution fall between two samples; repeat the earlier one
+		long resolution = source == RAW ? interval : Math.max(interval, TIER_MILLIS[source - 1]);
+		long columnMillis = Math.max(1, (to - from) / columns);
+		long reach = (resolution + columnMillis - 1) / columnMillis;
+		int last = -1;
+		for (int c = 0; c < columns; c++) {
+			if (counts[c] > 0) {
+				last = c;
+			} else if (last >= 0 && c - last < reach) {
+				min[c] = min[last];
+				max[c] = max[last];
+				avg[c] = avg[last];
+			}
+		}
+		return source;
+	}
+
+	/**
+	 * Returns the name of a source returned by {@link #query}.
+	 *
+	 * @param source the source index
+	 * @return e.g. "raw" or "10s"
+	 */
+	public static String sourceName(int source) {
+		if (source == RAW) return "raw";
+		long millis = TIER_MILLIS[source - 1];
+		return millis >= 60_000 ? millis / 60_000 + "m" : millis / 1000 + "s";
+	}
+
+	/**
+	 * Returns the earliest time any store still holds.
+	 *
+	 * @return the timestamp in milliseconds, or {@link Long#MAX_VALUE} if nothing was recorded
+	 */
+	public synchronized long oldest() {
+		long oldest = oldest(RAW);
+		for (int t = 0; t < tiers.length; t++) {
+			oldest = Math.min(oldest, oldest(t + 1));
+		}
+		return oldest;
+	}
+
+	/**
+	 * Picks the source for a given time per column, as described in {@link #query}.
+	 */
+	private int chooseSource(long columnMillis, long from) {
+		for (int t = tiers.length - 1; t >= 0; t--) {
+			if (TIER_MILLIS[t] <= columnMillis && oldest(t + 1) <= from) return t + 1;
+		}
+		if (oldest(RAW) <= from) return RAW;
+
+		int best = RAW;
+		for (int t = 0; t < tiers.length; t++) {
+			if (oldest(t + 1) < oldest(best)) best = t + 1;
+		}
+		return best;
+	}
+
+	private long oldest(int source) {
+		if (source == RAW) {
+			CompressedBlock first = blocks.peekFirst();
+			return first == null || first.rows() == 0 ? Long.MAX_VALUE : first.firstTime();
+		}
+		Tier tier = tiers[source - 1];
+		return tier.size == 0 ? Long.MAX_VALUE : tier.starts[tier.index(0)];
+	}
+
+	private static int column(long time, long from, long to, int columns) {
+		return (int) Math.min(columns - 1, (time - from) * columns / (to - from));
+	}
+
+	private static void accumulate(int c, double lo, double hi, double sum, int count,
+								   double[] min, double[] max, double[] avg, int[] counts) {
+		if (counts[c] == 0 || lo < min[c]) min[c] = lo;
+		if (counts[c] == 0 || hi > max[c]) max[c] = hi;
+		avg[c] += sum;
+		counts[c] += count;
+	}
+
+	private static double sumDisk(SystemSampler sampler, int field) {
+		DiskStats stats = sampler.getDiskStats();
+		double[] rates = sampler.getDiskRates();
+		if (stats == null || rates.length < stats.count() * DiskStats.RATE_FIELDS) return Double.NaN;
+
+		double sum = 0;
+		for (int d = 0; d < stats.count(); d++) sum += rates[d * DiskStats.RATE_FIELDS + field];
+		return sum;
+	}
+
+	private static double sumNetwork(SystemSampler sampler, int field) {
+		NetworkStats stats = sampler.getNetworkStats();
+		double[] rates = sampler.getNetworkRates();
+		if (stats == null || rates.length < stats.count() * NetworkStats.FIELDS) return Double.NaN;
+
+		double sum = 0;
+		for (int i = 0; i < stats.count(); i++) {
+			if (!stats.name(i).equals("lo")) sum += rates[i * NetworkStats.FIELDS + field];
+		}
+		return sum;
+	}
+
+	/**
+	 * Ring buffer of fixed-width buckets with min, max, sum and count per series.
+	 */
+	private static final class Tier {
+
+		final long width;
+		final int capacity;
+
+		final long[] starts;
+		final double[] min;
+		final double[] max;
+		final double[] sum;
+		final int[] count;
+
+		int head;
+		int size;
+
+		Tier(long width, int capacity) {
+			this.width = width;
+			this.capacity = Math.max(16, capacity);
+			this.starts = new long[this.capacity];
+			this.min = new double[this.capacity * SERIES];
+			this.max = new double[this.capacity * SERIES];
+			this.sum = new double[this.capacity * SERIES];
+			this.count = new int[this.capacity * SERIES];
+		}
+
+		/** @return the heap used per bucket */
+		static long bytesPerBucket() {
+			return 8 + SERIES * (3 * 8 + 4);
+		}
+
+		/** @return the ring position of the {@code i}-th oldest bucket */
+		int index(int i) {
+			return Math.floorMod(head - size + i, capacity);
+		}
+
+		/**
+		 * Adds a sample to the bucket containing {@code time}, opening a new one if needed.
+		 */
+		void add(long time, double[] sample) {
+			long start = time - Math.floorMod(time, width);
+			int b;
+			if (size > 0 && starts[index(size - 1)] == start) {
+				b = index(size - 1);
+			} else {
+				b = head;
+				head = head + 1 == capacity ? 0 : head + 1;
+				if (size < capacity) size++;
+				starts[b] = start;
+				Arrays.fill(count, b * SERIES, (b + 1) * SERIES, 0);
+				Arrays.fill(sum, b * SERIES, (b + 1) * SERIES, 0);
+			}
+
+			for (int s = 0; s < SERIES; s++) {
+				double v = sample[s];
+				if (Double.isNaN(v)) continue;
+				int k = b * SERIES + s;
+				if (count[k] == 0 || v < min[k]) min[k] = v;
+				if (count[k] == 0 || v > max[k]) max[k] = v;
+				sum[k] += v;
+				count[k]++;
+			}
+		}
+	}
+}
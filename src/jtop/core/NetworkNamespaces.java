@@ -0,0 +1,188 @@
+package jtop.core;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import jtop.Isystem.INetworkInfo;
+import jtop.util.LongIntMap;
+
+/**
+ * Network throughput of every network namespace that has live processes.
+ * <p>
+ * The kernel does not count network traffic per process, but every process
+ * sees the interfaces of its network namespace in <code>/proc/[pid]/net/dev</code>.
+ * Processes are therefore grouped by the inode of their namespace, and the
+ * counters of each namespace are read once per refresh through one of its
+ * processes. All processes of a namespace (the host, or one container) share
+ * its rate, which makes the processes behind a busy namespace easy to spot.
+ * </p>
+ * <p>
+ * The loopback interface is left out, since its traffic never leaves the
+ * namespace and would be counted once as sent and once as received.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>One <code>net/dev</code> read per namespace and refresh, however many processes it has</li>
+ *	 <li>Namespaces are indexed by inode in a {@link LongIntMap}, so per-process lookups do not box</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class NetworkNamespaces {
+
+	private static final String LOOPBACK = "lo";
+
+	private final LongIntMap index = new LongIntMap(16);
+
+	// columns, indexed by namespace slot
+	private long[] inodes = new long[0];
+	private long[] pids = new long[0];
+	private int[] seen = new int[0];
+	private long[] totals = new long[0];
+	private long[] sampledAt = new long[0];
+	private double[] rates = new double[0];
+	private int count;
+
+	private int generation;
+
+	/**
+	 * Starts a refresh; namespaces not observed until the next {@link #sample} are dropped.
+	 */
+	void begin() {
+		generation++;
+	}
+
+	/**
+	 * Records that a process lives in a namespace.
+	 * <p>
+	 * The first process observed in a refresh is the one whose view of the
+	 * interfaces is read.
+	 * </p>
+	 *
+	 * @param inode the namespace inode, or a negative value if unknown
+	 * @param pid the process ID
+	 */
+	void observe(long inode, long pid) {
+		if (inode < 0) return;
+
+		int ns = index.get(inode, -1);
+		if (ns < 0) {
+			ns = add(inode);
+		}
+		if (seen[ns] != generation) {
+			seen[ns] = generation;
+			pids[ns] = pid;
+		}
+	}
+
+	/**
+	 * Reads the counters of every observed namespace and updates its rate.
+	 *
+	 * @param network the backend reading the interface counters
+	 */
+	void sample(INetworkInfo network) {
+		retireStale();
+
+		for (int ns = 0; ns < count; ns++) {
+			long total = read(network, pids[ns]);
+			long now = System.nanoTime();
+			if (total < 0) {
+				// the process exited or is not accessible; try again on the next refresh
+				totals[ns] = -1;
+				rates[ns] = Double.NaN;
+				continue;
+			}
+
+			double seconds = (now - sampledAt[ns]) / 1e9;
+			boolean valid = totals[ns] >= 0 && total >= totals[ns] && seconds > 0;
+			rates[ns] = valid ? (total - totals[ns]) / seconds : 0;
+			totals[ns] = total;
+			sampledAt[ns] = now;
+		}
+	}
+
+	/**
+	 * Returns the throughput of a namespace.
+	 *
+	 * @param inode the namespace inode
+	 * @return received plus transmitted bytes per second, or NaN if unknown
+	 */
+	double rate(long inode) {
+		int ns = inode < 0 ? -1 : index.get(inode, -1);
+		return ns < 0 ? Double.NaN : rates[ns];
+	}
+
+	/**
+	 * Returns the number of namespaces with live processes.
+	 *
+	 * @return the number of namespaces read per refresh
+	 */
+	int size() {
+		return count;
+	}
+
+	/**
+	 * Sums the received and transmitted bytes of all interfaces but loopback.
+	 *
+	 * @return the total, or -1 if the counters cannot be read
+	 */
+	private static long read(INetworkInfo network, long pid) {
+		Map<String, long[]> usage;
+		try {
+			usage = network.getNetworkUsage(pid);
+		} catch (Exception e) {
+			return -1;
+		}
+		if (usage.isEmpty()) return -1;
+
+		long total = 0;
+		for (Map.Entry<String, long[]> entry : usage.entrySet()) {
+			if (LOOPBACK.equals(entry.getKey())) continue;
+			total += entry.getValue()[0] + entry.getValue()[1];
+		}
+		return total;
+	}
+
+	private int add(long inode) {
+		if (count == inodes.length) {
+			int capacity = Math.max(4, count * 2);
+			inodes = Arrays.copyOf(inodes, capacity);
+			pids = Arrays.copyOf(pids, capacity);
+			seen = Arrays.copyOf(seen, capacity);
+			totals = Arrays.copyOf(totals, capacity);
+			sampledAt = Arrays.copyOf(sampledAt, capacity);
+			rates = Arrays.copyOf(rates, capacity);
+		}
+		int ns = count++;
+		inodes[ns] = inode;
+		totals[ns] = -1;
+		rates[ns] = Double.NaN;
+		index.put(inode, ns);
+		return ns;
+	}
+
+	/**
+	 * Drops namespaces without live processes by moving the last namespace into their slot.
+	 */
+	private void retireStale() {
+		for (int ns = count - 1; ns >= 0; ns--) {
+			if (seen[ns] == generation) continue;
+
+			index.remove(inodes[ns], -1);
+			int last = --count;
+			if (ns != last) {
+				inodes[ns] = inodes[last];
+				pids[ns] = pids[last];
+				seen[ns] = seen[last];
+				totals[ns] = totals[last];
+				sampledAt[ns] = sampledAt[last];
+				rates[ns] = rates[last];
+				index.put(inodes[ns], ns);
+			}
+		}
+	}
+}
@@ -1,96 +1,92 @@
 package jtop.core;
 
-import java.util.Comparator;
-import java.util.Optional;
-
-import jtop.Isystem.ICpuInfo;
-import jtop.Isystem.IMemoryInfo;
-import jtop.Isystem.IPathInfo;
-import jtop.system.Feature;
-import jtop.system.SystemInfoFactory;
+import jtop.util.IntComparator;
 
 /**
  * Provides sorting utilities for processes.
  * <p>
- * Generates comparators to sort {@link ProcessHandle} instances based on
- * PID, name, path, user, CPU usage, or memory usage. Supports ascending
+ * Generates comparators to sort the rows of a {@link ProcessTable} based on
+ * PID, name, path, user, CPU usage, memory usage, disk I/O rate, or network rate. Supports ascending
  * and descending order.
  * </p>
+ * <p>
+ * The comparators only read the typed columns of the table, so no system call
+ * happens during a sort and the values cannot change mid-sort. They compare
+ * slot indices rather than row objects, so nothing is boxed. Rows with equal keys are ordered by ascending PID, which keeps the
+ * order stable between frames.
+ * </p>
  */
 public class ProcessSorter {
 
 	/**
 	 * Returns a comparator for processes based on the specified sort type.
 	 *
+	 * @param table the table whose slots are compared
 	 * @param sortBy the {@link InfoType} to sort by (PID, NAME, CPU, MEMORY, etc.)
 	 * @param ascending true for ascending order, false for descending
-	 * @return a {@link Comparator} for {@link ProcessHandle}
+	 * @return an {@link IntComparator} over slot indices of {@code table}
 	 */
-	public static Comparator<ProcessHandle> getComparator(InfoType sortBy, boolean ascending) {
-		// create interface instances from factory
-		Optional<IPathInfo> pathOpt = SystemInfoFactory.getFeature(Feature.PROCESS);
-		Optional<ICpuInfo> cpuOpt = SystemInfoFactory.getFeature(Feature.CPU);
-		Optional<IMemoryInfo> memOpt = SystemInfoFactory.getFeature(Feature.MEMORY);
-
+	public static IntComparator getComparator(ProcessTable table, InfoType sortBy, boolean ascending) {
 		return (a, b) -> {
-			int cmp = 0;
-			try {
-				switch (sortBy) {
-					case PID -> cmp = Long.compare(a.pid(), b.pid());
-					case NAME -> cmp = safeCompare(
-							pathOpt.map(p -> p.getName(a.pid())).orElse(""),
-							pathOpt.map(p -> p.getName(b.pid())).orElse("")
-					);
-					case PATH -> cmp = safeCompare(
-							pathOpt.map(p -> p.getPath(a.pid())).orElse(""),
-							pathOpt.map(p -> p.getPath(b.pid())).orElse("")
-					);
-					case USER -> cmp = safeCompare(
-							a.info().user().orElse(""),
-							b.info().user().orElse("")
-					);
-					case CPU -> cmp = Double.compare(
-						cpuOpt.map(c -> safeCpu(c, a.pid())).orElse(0.0),
-						cpuOpt.map(c -> safeCpu(c, b.pid())).orElse(0.0)
-					);
-					case MEMORY -> cmp = Double.compare(
-						memOpt.map(m -> safeMemory(m, a.pid())).orElse(0.0),
-						memOpt.map(m -> safeMemory(m, b.pid())).orElse(0.0)
-					);
-
-					default -> cmp = 0;
+			int cmp = switch (sortBy) {
+				case PID -> Long.compare(table.pid(a), table.pid(b));
+				case NAME -> safeCompare(table.name(a), table.name(b));
+				case PATH -> safeCompare(table.path(a), table.path(b));
+				case USER -> safeCompare(table.user(a), table.user(b));
+				case CPU -> Double.compare(table.cpu(a), table.cpu(b));
+				case MEMORY -> Double.compare(table.memory(a), table.memory(b));
+				// equal byte rates, typically 0 for page-cache hits, fall back to syscall rates
+				case DISK_READ -> {
+					int c = compareRate(table.readRate(a), table.readRate(b));
+					yield c != 0 ? c : compareRate(table.readCallRate(a), table.readCallRate(b));
 				}
-			} catch (Exception ignored) { }
-			return ascending ? cmp : -cmp;
+				case DISK_WRITE -> {
+					int c = compareRate(table.writeRate(a), table.writeRate(b));
+					yield c != 0 ? c : compareRate(table.writeCallRate(a), table.writeCallRate(b));
+				}
+				// processes of one namespace share a rate; keep them together
+				case NETWORK -> {
+					int c = compareRate(table.network(a), table.network(b));
+					yield c != 0 ? c : Long.compare(table.networkNamespace(a), table.networkNamespace(b));
+				}
+				default -> 0;
+			};
+			if (!ascending) cmp = -cmp;
+
+			// tie-break on PID so equal keys keep the same order on every frame
+			return cmp != 0 ? cmp : Long.compare(table.pid(a), table.pid(b));
 		};
 	}
 
+	/**
+	 * Compares two rates, ordering unavailable (NaN) values below all others
+	 * so unreadable processes never top a descending sort.
+	 *
+	 * @param a first rate
+	 * @param b second rate
+	 * @return comparison result
+	 */
+	private static int compareRate(double a, double b) {
+		boolean aMissing = Double.isNaN(a);
+		boolean bMissing = Double.isNaN(b);
+		if (aMissing || bMissing) return Boolean.compare(bMissing, aMissing);
+		return Double.compare(a, b);
+	}
+
 	/**
 	 * Compares two strings in a case-insensitive manner, treating null as empty.
+	 * <p>
+	 * Identical (e.g. interned) strings are recognized without comparing characters.
+	 * </p>
 	 *
 	 * @param a first string
 	 * @param b second string
 	 * @return comparison result
 	 */
 	private static int safeCompare(String a, String b) {
+		if (a == b) return 0;
 		if (a == null) a = "";
 		if (b == null) b = "";
 		return a.compareToIgnoreCase(b);
 	}
-
-	private static double safeMemory(IMemoryInfo mem, long pid) {
-		try {
-			return mem.getMemoryPercent(pid);
-		} catch (Exception e) {
-			return 0.0;
-		}
-	}
-
-	private static double safeCpu(ICpuInfo cpu, long pid) {
-		try {
-			return cpu.getCpuPercent(pid);
-		} catch (Exception e) {
-			return 0.0;
-		}
-	}
-}
\ No newline at end of file
+}
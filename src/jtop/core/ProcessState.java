@@ -1,7 +1,6 @@
 package jtop.core;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import jtop.system.ProcessStat;
+import jtop.system.linux.ProcReader;
 
 /**
  * Utility class for retrieving and interpreting a process's current state.
@@ -34,35 +33,47 @@ public class ProcessState {
 	 * @return a human-readable description of the process state, or <code>"?"</code> if unavailable
 	 */
 	public static String getState(long pid) {
-		String path = "/proc/" + pid + "/stat";
-		try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-			String[] parts = reader.readLine().split("\\s+");
-			// Field 3 is the process state (R, S, D, T, Z, etc.)
-			if (parts.length > 2) {
-				return parseState(parts[2]);
-			}
-		} catch (IOException e) {
-			return "?";
-		}
-		return "?";
+		ProcReader reader = ProcReader.get();
+		if (!reader.readProcess(pid, "stat")) return "?";
+
+		// Field 3 is the process state (R, S, D, T, Z, etc.); it follows the
+		// command name, which may itself contain spaces and parentheses
+		int close = reader.lastIndexOf(')');
+		if (close < 0) return "?";
+		reader.seek(close + 1);
+		return parseState(reader.nextChar());
+	}
+
+	/**
+	 * Returns the state of a process from an already collected snapshot.
+	 * <p>
+	 * Unlike {@link #getState(long)}, no file is read.
+	 * </p>
+	 *
+	 * @param stat the process snapshot
+	 * @return a human-readable description of the process state, or <code>"?"</code> if unavailable
+	 */
+	public static String getState(ProcessStat stat) {
+		return parseState(stat.state());
 	}
 
 	/**
 	 * Converts the short one-letter state code from <code>/proc/[pid]/stat</code>
 	 * into a descriptive string.
 	 *
-	 * @param s the single-character state code (e.g. "R", "S", "Z")
+	 * @param s the single-character state code (e.g. 'R', 'S', 'Z')
 	 * @return the full human-readable process state
 	 */
-	private static String parseState(String s) {
+	private static String parseState(char s) {
 		switch (s) {
-			case "R": return "Running";
-			case "S": return "Sleeping";
-			case "D": return "Disk Sleep";
-			case "T": return "Stopped";
-			case "Z": return "Zombie";
-			case "X": return "Dead";
-			default:  return s;
+			case 'R': return "Running";
+			case 'S': return "Sleeping";
+			case 'D': return "Disk Sleep";
+			case 'T': return "Stopped";
+			case 'Z': return "Zombie";
+			case 'X': return "Dead";
+			case '?': return "?";
+			default:  return String.valueOf(s);
 		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,449 @@
+package jtop.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jtop.Isystem.ICpuInfo;
+import jtop.Isystem.IMemoryInfo;
+import jtop.Isystem.INetworkInfo;
+import jtop.Isystem.IPathInfo;
+import jtop.system.ProcessStat;
+import jtop.system.UserNames;
+import jtop.util.IntComparator;
+import jtop.util.IntSort;
+import jtop.util.LongIntMap;
+
+/**
+ * Persistent, columnar table of all processes that is updated in place on every refresh.
+ * <p>
+ * Every process occupies one slot in a set of parallel arrays (PID, CPU,
+ * memory, user ID, I/O rates, network namespace, ...). Owners are stored as numeric user IDs; their
+ * names are looked up through {@link UserNames} only when the user ID of a slot changes, or for every
+ * slot after <code>/etc/passwd</code> was reloaded. Slots are keyed by (pid, start time) through
+ * {@link ProcessStat#key()}, so a reused PID gets a fresh slot instead of
+ * inheriting the name, path and user of the exited process. Static columns
+ * (name, path, network namespace) are resolved when a process first appears and again only
+ * if its kernel command name changed, i.e. after an {@code exec}; otherwise
+ * only the owner, CPU, memory and I/O are updated on later refreshes. Processes that are missing from a
+ * refresh are retired by comparing the generation in which they were last seen.
+ * </p>
+ * <p>
+ * The display order is kept separately as a permutation of slot indices:
+ * {@link #slot(int)} maps a row position to its slot, whose columns are then
+ * read through the typed accessors. Values are stored as numbers and only
+ * formatted for the rows that are actually drawn.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>No per-process objects; numeric columns are primitive arrays</li>
+ *	 <li>Work and garbage per refresh are proportional to new processes, not to all processes</li>
+ *	 <li>Slots of exited processes are recycled via a free list</li>
+ *	 <li>Sorting permutes an {@code int[]} of slot indices without boxing</li>
+ *	 <li>{@link #selectTop} orders just the visible window in O(n log k)</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe; callers must serialize updates and reads.
+ * </p>
+ */
+public class ProcessTable {
+
+	private final LongIntMap index = new LongIntMap();
+
+	// columns, indexed by slot
+	private long[] keys = new long[0];
+	private int[] seen = new int[0];
+	private long[] pids = new long[0];
+	private int[] uids = new int[0];
+	private String[] users = new String[0];
+	private double[] cpu = new double[0];
+	private double[] memory = new double[0];
+	private String[] names = new String[0];
+	private String[] paths = new String[0];
+	private String[] comms = new String[0];
+
+	// I/O counters of the previous update and the rates derived from them
+	private long[] prevReadBytes = new long[0];
+	private long[] prevWriteBytes = new long[0];
+	private long[] prevReadCalls = new long[0];
+	private long[] prevWriteCalls = new long[0];
+	private double[] readRate = new double[0];
+	private double[] writeRate = new double[0];
+	private double[] readCallRate = new double[0];
+	private double[] writeCallRate = new double[0];
+	private long lastUpdateNanos;
+
+	// network namespace inode per slot and its throughput; traffic is only known per namespace
+	private long[] netns = new long[0];
+	private double[] network = new double[0];
+	private final NetworkNamespaces namespaces = new NetworkNamespaces();
+
+	private int[] freeSlots = new int[0];
+	private int freeCount;
+	private int used;
+
+	private int generation;
+
+	/** Slots of live processes in display order; the first {@link #size()} entries are valid. */
+	private int[] order = new int[0];
+	private int[] scratch = new int[0];
+	private int live;
+
+	/** Number of leading entries of {@link #order} that are in final order. */
+	private int ordered;
+
+	/**
+	 * Applies one complete process snapshot to the table.
+	 * <p>
+	 * Any of the backends may be {@code null}, in which case the matching
+	 * columns show "?" or {@link Double#NaN}.
+	 * </p>
+	 *
+	 * @param stats the processes collected in this refresh
+	 * @param cpuInfo the CPU backend, already sampled with {@code stats}
+	 * @param memoryInfo the memory backend
+	 * @param pathInfo the backend resolving names and paths
+	 * @param networkInfo the backend reading per-namespace network counters
+	 */
+	public void update(List<ProcessStat> stats, ICpuInfo cpuInfo, IMemoryInfo memoryInfo, IPathInfo pathInfo,
+			INetworkInfo networkInfo) {
+		generation++;
+		boolean usersReloaded = UserNames.revalidate();
+		namespaces.begin();
+
+		long now = System.nanoTime();
+		double seconds = lastUpdateNanos == 0 ? 0 : (now - lastUpdateNanos) / 1e9;
+		lastUpdateNanos = now;
+
+		for (ProcessStat stat : stats) {
+			long key = stat.key();
+			int slot = index.get(key, -1);
+			boolean added = slot < 0;
+			if (added) {
+				slot = allocate(key);
+				resolveStatic(slot, stat, pathInfo, networkInfo);
+			} else if (!stat.name().equals(comms[slot])) {
+				// the command name only changes on exec, which also changes name and path
+				// (and, with tools like unshare or ip netns exec, the namespace)
+				resolveStatic(slot, stat, pathInfo, networkInfo);
+			}
+			seen[slot] = generation;
+			// setuid and friends change the owner without an exec
+			if (added || usersReloaded || uids[slot] != stat.uid()) {
+				uids[slot] = stat.uid();
+				users[slot] = UserNames.name(stat.uid());
+			}
+			cpu[slot] = cpuInfo != null ? safeCpu(cpuInfo, stat) : Double.NaN;
+			memory[slot] = memoryInfo != null ? safeMemory(memoryInfo, stat) : Double.NaN;
+			updateIo(slot, stat, added ? 0 : seconds);
+			namespaces.observe(netns[slot], pids[slot]);
+		}
+
+		retireStale();
+		if (networkInfo != null) {
+			namespaces.sample(networkInfo);
+		}
+		for (int row = 0; row < live; row++) {
+			int slot = order[row];
+			network[slot] = namespaces.rate(netns[slot]);
+		}
+	}
+
+	/**
+	 * Starts replacing the contents of the table with a recorded snapshot, in place of {@link #update}.
+	 * <p>
+	 * Call {@link #restore} once per recorded process and then {@link #endRestore()}.
+	 * Recordings do not keep start times, so restored rows are keyed by PID
+	 * alone; a table must be filled either by updates or by restores, not both.
+	 * </p>
+	 */
+	public void beginRestore() {
+		generation++;
+	}
+
+	/**
+	 * Sets one row of a recorded snapshot.
+	 * <p>
+	 * Name, path and user are only replaced if they differ from the stored row of the PID.
+	 * </p>
+	 *
+	 * @param pid the process ID
+	 * @param uid the real user ID, or -1 if unknown
+	 * @param name the process name
+	 * @param path the executable path
+	 * @param cpuPercent the CPU usage in percent, or NaN
+	 * @param memoryPercent the memory usage in percent, or NaN
+	 * @param readBytesRate the storage read rate in bytes per second, or NaN
+	 * @param writeBytesRate the storage write rate in bytes per second, or NaN
+	 * @param networkRate the network throughput of its namespace in bytes per second, or NaN
+	 */
+	public void restore(long pid, int uid, String name, String path, double cpuPercent, double memoryPercent,
+			double readBytesRate, double writeBytesRate, double networkRate) {
+		int slot = index.get(pid, -1);
+		if (slot < 0) {
+			slot = allocate(pid);
+		}
+		if (uids[slot] != uid || !name.equals(names[slot]) || !path.equals(paths[slot])) {
+			pids[slot] = pid;
+			uids[slot] = uid;
+			users[slot] = UserNames.name(uid);
+			names[slot] = name;
+			paths[slot] = path;
+			comms[slot] = name;
+			netns[slot] = -1;
+		}
+		seen[slot] = generation;
+		cpu[slot] = cpuPercent;
+		memory[slot] = memoryPercent;
+		readRate[slot] = readBytesRate;
+		writeRate[slot] = writeBytesRate;
+		readCallRate[slot] = writeCallRate[slot] = Double.NaN;
+		network[slot] = networkRate;
+	}
+
+	/**
+	 * Finishes a recorded snapshot, dropping the rows that were not restored since {@link #beginRestore()}.
+	 */
+	public void endRestore() {
+		retireStale();
+	}
+
+	/**
+	 * Orders the live rows.
+	 *
+	 * @param cmp an ordering of slot indices, e.g. from {@link ProcessSorter#getComparator}
+	 */
+	public void sort(IntComparator cmp) {
+		IntSort.sort(order, 0, live, scratch, cmp);
+		ordered = live;
+	}
+
+	/**
+	 * Orders only the first {@code count} live rows.
+	 * <p>
+	 * Rows beyond {@code count} end up in unspecified order. Use this when only
+	 * a window at the top of the table is drawn; use {@link #sort} when every
+	 * row is needed in order.
+	 * </p>
+	 *
+	 * @param cmp an ordering of slot indices; must be a total order
+	 * @param count the number of leading rows to order
+	 */
+	public void selectTop(IntComparator cmp, int count) {
+		ordered = IntSort.selectTop(order, 0, live, count, scratch, cmp);
+	}
+
+	/**
+	 * Returns how many leading rows are in the order of the last {@link #sort} or {@link #selectTop}.
+	 *
+	 * @return the number of ordered rows; 0 after an {@link #update} until the rows are ordered again
+	 */
+	public int ordered() {
+		return ordered;
+	}
+
+	/**
+	 * Returns the number of live processes.
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return live;
+	}
+
+	/**
+	 * Returns the slot of the row at a display position.
+	 *
+	 * @param row the zero-based position in the current order, below {@link #size()}
+	 * @return the slot index to pass to the column accessors
+	 */
+	public int slot(int row) {
+		return order[row];
+	}
+
+	/**
+	 * Returns the generation of the last update.
+	 *
+	 * @return the number of updates applied so far
+	 */
+	public int getGeneration() {
+		return generation;
+	}
+
+	/** @return the (pid, start time) key of the process in {@code slot}, see {@link ProcessStat#key()} */
+	public long key(int slot) { return keys[slot]; }
+
+	/** @return the process ID stored in {@code slot} */
+	public long pid(int slot) { return pids[slot]; }
+
+	/** @return the real user ID stored in {@code slot}, or -1 if unknown */
+	public int uid(int slot) { return uids[slot]; }
+
+	/** @return the CPU usage percentage stored in {@code slot}, or NaN if unavailable */
+	public double cpu(int slot) { return cpu[slot]; }
+
+	/** @return the memory usage percentage stored in {@code slot}, or NaN if unavailable */
+	public double memory(int slot) { return memory[slot]; }
+
+	/** @return bytes per second fetched from storage by the process in {@code slot}, or NaN if unreadable */
+	public double readRate(int slot) { return readRate[slot]; }
+
+	/** @return bytes per second sent to storage by the process in {@code slot}, or NaN if unreadable */
+	public double writeRate(int slot) { return writeRate[slot]; }
+
+	/** @return read system calls per second of the process in {@code slot}, or NaN if unreadable */
+	public double readCallRate(int slot) { return readCallRate[slot]; }
+
+	/** @return write system calls per second of the process in {@code slot}, or NaN if unreadable */
+	public double writeCallRate(int slot) { return writeCallRate[slot]; }
+
+	/**
+	 * Returns the network throughput of the namespace the process in {@code slot} belongs to.
+	 * <p>
+	 * All processes of a namespace report the same value.
+	 * </p>
+	 *
+	 * @param slot the slot index
+	 * @return received plus transmitted bytes per second, or NaN if unknown
+	 */
+	public double network(int slot) { return network[slot]; }
+
+	/** @return the network namespace inode of the process in {@code slot}, or -1 if unknown */
+	public long networkNamespace(int slot) { return netns[slot]; }
+
+	/** @return the process name stored in {@code slot} */
+	public String name(int slot) { return names[slot]; }
+
+	/** @return the executable path stored in {@code slot} */
+	public String path(int slot) { return paths[slot]; }
+
+	/** @return the name of the user owning the process in {@code slot} */
+	public String user(int slot) { return users[slot]; }
+
+	/**
+	 * Derives the I/O rates of a slot from its counters and stores the counters for the next update.
+	 *
+	 * @param seconds the time since the counters were stored, or 0 if there are none
+	 */
+	private void updateIo(int slot, ProcessStat stat, double seconds) {
+		if (!stat.hasIo()) {
+			readRate[slot] = writeRate[slot] = readCallRate[slot] = writeCallRate[slot] = Double.NaN;
+		} else {
+			readRate[slot] = rate(stat.readBytes(), prevReadBytes[slot], seconds);
+			writeRate[slot] = rate(stat.writeBytes(), prevWriteBytes[slot], seconds);
+			readCallRate[slot] = rate(stat.readCalls(), prevReadCalls[slot], seconds);
+			writeCallRate[slot] = rate(stat.writeCalls(), prevWriteCalls[slot], seconds);
+		}
+		prevReadBytes[slot] = stat.readBytes();
+		prevWriteBytes[slot] = stat.writeBytes();
+		prevReadCalls[slot] = stat.readCalls();
+		prevWriteCalls[slot] = stat.writeCalls();
+	}
+
+	/**
+	 * Returns the increase of a counter per second, or 0 without a valid previous value.
+	 */
+	private static double rate(long current, long previous, double seconds) {
+		if (seconds <= 0 || previous < 0 || current < previous) return 0;
+		return (current - previous) / seconds;
+	}
+
+	/**
+	 * Fills the columns that do not change during the lifetime of a process.
+	 */
+	private void resolveStatic(int slot, ProcessStat stat, IPathInfo pathInfo, INetworkInfo networkInfo) {
+		long pid = stat.pid();
+		pids[slot] = pid;
+		comms[slot] = stat.name();
+		names[slot] = "?";
+		paths[slot] = "?";
+		if (pathInfo != null) {
+			try {
+				names[slot] = safe(pathInfo.getName(stat));
+				paths[slot] = safe(pathInfo.getPath(stat));
+			} catch (Exception ignored) {}
+		}
+		netns[slot] = networkInfo != null ? networkInfo.getNamespace(pid) : -1;
+	}
+
+	/**
+	 * Assigns a slot to a new key, reusing the slot of a retired process when possible.
+	 */
+	private int allocate(long key) {
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (used == keys.length) {
+				grow(Math.max(256, keys.length * 2));
+			}
+			slot = used++;
+		}
+		keys[slot] = key;
+		index.put(key, slot);
+		return slot;
+	}
+
+	/**
+	 * Releases the slots of all processes not seen in the current generation
+	 * and rebuilds the order from the live slots.
+	 */
+	private void retireStale() {
+		live = 0;
+		ordered = 0;
+		for (int slot = 0; slot < used; slot++) {
+			if (seen[slot] == generation) {
+				order[live++] = slot;
+			} else if (seen[slot] != 0) {
+				index.remove(keys[slot], -1);
+				seen[slot] = 0;
+				// drop references so retired names can be collected
+				users[slot] = null;
+				names[slot] = null;
+				paths[slot] = null;
+				comms[slot] = null;
+				if (freeCount == freeSlots.length) {
+					freeSlots = Arrays.copyOf(freeSlots, Math.max(64, freeSlots.length * 2));
+				}
+				freeSlots[freeCount++] = slot;
+			}
+		}
+	}
+
+	private void grow(int capacity) {
+		keys = Arrays.copyOf(keys, capacity);
+		seen = Arrays.copyOf(seen, capacity);
+		pids = Arrays.copyOf(pids, capacity);
+		uids = Arrays.copyOf(uids, capacity);
+		users = Arrays.copyOf(users, capacity);
+		cpu = Arrays.copyOf(cpu, capacity);
+		memory = Arrays.copyOf(memory, capacity);
+		names = Arrays.copyOf(names, capacity);
+		paths = Arrays.copyOf(paths, capacity);
+		comms = Arrays.copyOf(comms, capacity);
+		prevReadBytes = Arrays.copyOf(prevReadBytes, capacity);
+		prevWriteBytes = Arrays.copyOf(prevWriteBytes, capacity);
+		prevReadCalls = Arrays.copyOf(prevReadCalls, capacity);
+		prevWriteCalls = Arrays.copyOf(prevWriteCalls, capacity);
+		readRate = Arrays.copyOf(readRate, capacity);
+		writeRate = Arrays.copyOf(writeRate, capacity);
+		readCallRate = Arrays.copyOf(readCallRate, capacity);
+		writeCallRate = Arrays.copyOf(writeCallRate, capacity);
+		netns = Arrays.copyOf(netns, capacity);
+		network = Arrays.copyOf(network, capacity);
+		order = Arrays.copyOf(order, capacity);
+		scratch = new int[capacity];
+	}
+
+	private static String safe(String s) { return s != null ? s : "?"; }
+
+	private static double safeCpu(ICpuInfo cpu, ProcessStat stat) {
+		try { return cpu.getCpuPercent(stat); } catch (Exception e) { return 0.0; }
+	}
+
+	private static double safeMemory(IMemoryInfo mem, ProcessStat stat) {
+		try { return mem.getMemoryPercent(stat); } catch (Exception e) { return 0.0; }
+	}
+}
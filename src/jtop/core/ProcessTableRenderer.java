@@ -5,8 +5,11 @@ import java.util.List;
 
 import jtop.config.Config;
 import jtop.terminal.Header;
+import jtop.terminal.HistoryView;
+import jtop.terminal.Screen;
 import jtop.terminal.TerminalSize;
 import jtop.system.linux.SystemSampler;
+import jtop.util.UnitFormat;
 
 /**
  * Responsible for rendering the process table in the terminal.
@@ -18,12 +21,15 @@ import jtop.system.linux.SystemSampler;
  *     <li>Column alignment based on terminal width and cell size.</li>
  *     <li>Displaying keybindings and scrolling status.</li>
  * </ul>
+ * <p>
+ * Frames are composed into a {@link Screen} buffer, which only sends the cells
+ * that changed since the previous frame to the terminal.
+ * </p>
  */
 public class ProcessTableRenderer {
 	private final String tableColor;
 	private final String headerColor;
 	private final String footerColor;
-	private final String clearStyling;
 	private final String sortingArrowColor;
 	private static String keyBindings = "";
 
@@ -31,6 +37,17 @@ public class ProcessTableRenderer {
 	private final int pageSize;
 	private final SystemSampler sampler;
 
+	// decimal places of the percentage columns
+	private final int cpuAccuracy;
+	private final int memoryAccuracy;
+
+	// units of the disk columns and of the disk panel in the header
+	private final UnitFormat diskReadFormat;
+	private final UnitFormat diskWriteFormat;
+
+	// unit of the network column and of the network panel in the header
+	private final UnitFormat networkFormat;
+
 	/**
 	 * Initializes the table renderer with configuration and layout settings.
 	 *
@@ -43,13 +60,17 @@ public class ProcessTableRenderer {
 		this.tableColor = config.getString("table.color", "\033[40m\033[37m");
 		this.headerColor = config.getString("header.color", "\033[47m\033[30m");
 		this.footerColor = config.getString("footer.color", "\033[41m\033[37m");
-		this.clearStyling = "\033[0m";
 		this.sortingArrowColor = "\033[31m";
 		this.keyBindings = config.getString("footer.text.keybindings",
-				"Use j/k to scroll, Enter to scroll entire row, 'q' or Ctrl+C to quit");
+				"Use j/k to scroll, Enter to scroll entire row, 'h' for history, 'q' or Ctrl+C to quit");
 		this.cellWidth = cellWidth;
 		this.pageSize = pageSize;
 		this.sampler = sampler;
+		this.cpuAccuracy = config.getInt("table.value.CPU.accuracy", 3);
+		this.memoryAccuracy = config.getInt("table.value.MEMORY.accuracy", 3);
+		this.diskReadFormat = UnitFormat.fromConfig(config, "DISK_READ");
+		this.diskWriteFormat = UnitFormat.fromConfig(config, "DISK_WRITE");
+		this.networkFormat = UnitFormat.fromConfig(config, "NETWORK");
 	}
 
 	/**
@@ -69,87 +90,142 @@ public class ProcessTableRenderer {
 	/**
 	 * Draws the process table on the terminal.
 	 *
-	 * @param processes the list of processes to display
+	 * @param screen the screen buffer to compose the frame into
+	 * @param processes the process table, already in display order
 	 * @param infoTypes the columns to show (PID, NAME, CPU, etc.)
 	 * @param sortBy the column currently used for sorting
 	 * @param sortAsc true if sorting ascending, false if descending
 	 * @param scrollIndex starting index for visible rows
-	 * @param uptime system uptime in hours (cached)
+	 * @param uptime system uptime in hours (cached), or NaN if unknown
 	 * @param load system load average (cached)
+	 * @param status text appended to the footer, e.g. the replay position; empty for none
 	 */
-	public void draw(List<ProcessRow> processes, List<InfoType> infoTypes, InfoType sortBy, boolean sortAsc, int scrollIndex,
-					 double uptime, String load) {
-		TerminalSize terminalSize = new TerminalSize();
+	public void draw(Screen screen, ProcessTable processes, List<InfoType> infoTypes, InfoType sortBy, boolean sortAsc,
+					 int scrollIndex, double uptime, String load, String status) {
 		int total = processes.size();
 		int end = Math.min(scrollIndex + pageSize, total);
 
-		// Clear screen
-		System.out.print("\033[H\033[2J");
-		System.out.flush();
+		screen.resize(TerminalSize.getRows(), TerminalSize.getColumns());
+		screen.clear();
 
 		// Draw header with cached SystemSampler
-		Header.draw(sampler, uptime, load);
+		Header.draw(screen, 0, sampler, uptime, load, diskReadFormat, diskWriteFormat, networkFormat);
+		int row = Header.getRowsCount();
 
 		// Print table header
-		printHeader(infoTypes, sortBy, sortAsc);
+		printHeader(screen, row++, infoTypes, sortBy, sortAsc);
 
 		// Print visible process rows
 		for (int i = scrollIndex; i < end; i++) {
-			printProcessRow(processes.get(i), infoTypes);
+			printProcessRow(screen, row++, processes, processes.slot(i), infoTypes);
 		}
 
 		// Print footer
-		String spaces = " ".repeat(Math.max(0, (terminalSize.getColumns() - 25) / 2));
-		System.out.printf("\r%s%s-- Showing %d-%d of %d --%s\n",
-				spaces, footerColor, scrollIndex + 1, end, total, clearStyling);
-		System.out.print("\r" + keyBindings);
+		String footer = String.format("-- Showing %d-%d of %d --", scrollIndex + 1, end, total);
+		if (!status.isEmpty()) footer += " " + status + " --";
+		int spaces = Math.max(0, (screen.getColumns() - footer.length()) / 2);
+		screen.print(row++, spaces, footer, footerColor);
+
+		// Print keybindings, wrapped over as many rows as needed
+		int columns = Math.max(1, screen.getColumns());
+		for (int i = 0; i < keyBindings.length(); i += columns) {
+			screen.print(row++, 0, keyBindings.substring(i, Math.min(keyBindings.length(), i + columns)), "");
+		}
+
+		screen.flush(System.out);
+	}
+
+	/**
+	 * Renders the header and the history charts instead of the process table.
+	 *
+	 * @param screen the frame buffer to compose into
+	 * @param history the recorded system metrics
+	 * @param from the start of the shown window in milliseconds
+	 * @param to the end of the shown window in milliseconds
+	 * @param window a description of the window for the footer, e.g. "1h ending now"
+	 * @param uptime system uptime in hours (cached)
+	 * @param load system load average (cached)
+	 */
+	public void drawHistory(Screen screen, MetricHistory history, long from, long to, String window,
+							double uptime, String load) {
+		screen.resize(TerminalSize.getRows(), TerminalSize.getColumns());
+		screen.clear();
+
+		Header.draw(screen, 0, sampler, uptime, load, diskReadFormat, diskWriteFormat, networkFormat);
+		int row = Header.getRowsCount();
+
+		// one footer row and one row of key help
+		int height = Math.max(0, screen.getRows() - row - 2);
+		int source = HistoryView.draw(screen, row, height, history, from, to,
+				diskReadFormat, diskWriteFormat, networkFormat, tableColor);
+		row += height;
+
+		String footer = String.format("-- History: %s, %s resolution --", window, MetricHistory.sourceName(source));
+		int spaces = Math.max(0, (screen.getColumns() - footer.length()) / 2);
+		screen.print(row++, spaces, footer, footerColor);
+		screen.print(row, 0, "Use +/- to zoom, k/j to move back/forward in time, 'h' for the process table", "");
+
+		screen.flush(System.out);
 	}
 
 	/**
 	 * Prints the table header with sorting indicators.
 	 */
-	private void printHeader(List<InfoType> infoTypes, InfoType sortBy, boolean sortAsc) {
+	private void printHeader(Screen screen, int row, List<InfoType> infoTypes, InfoType sortBy, boolean sortAsc) {
 		List<String> headers = new ArrayList<>();
 		for (InfoType type : infoTypes) {
 			String name = type.name();
 			if (type == InfoType.CPU || type == InfoType.MEMORY) name += " %";
+			if (type == InfoType.DISK_READ) name += " " + diskReadFormat.getUnit() + "/s";
+			if (type == InfoType.DISK_WRITE) name += " " + diskWriteFormat.getUnit() + "/s";
+			if (type == InfoType.NETWORK) name += " " + networkFormat.getUnit() + "/s";
 			if (type == sortBy) name += sortAsc ? " ^" : " v";
 			headers.add(name);
 		}
-		printRow(headerColor, headers);
+		printRow(screen, row, headerColor, headers);
 	}
 
 	/**
 	 * Prints a single row of process data.
+	 * <p>
+	 * Numeric columns are formatted here, so only visible rows are ever turned into text.
+	 * </p>
 	 */
-	private void printProcessRow(ProcessRow row, List<InfoType> infoTypes) {
+	private void printProcessRow(Screen screen, int row, ProcessTable processes, int slot, List<InfoType> infoTypes) {
 		List<String> cells = new ArrayList<>();
 		for (InfoType type : infoTypes) {
 			switch (type) {
-				case PID -> cells.add(String.valueOf(row.pid));
-				case NAME -> cells.add(row.name);
-				case PATH -> cells.add(row.path);
-				case USER -> cells.add(row.user);
-				case CPU -> cells.add(row.cpu);
-				case MEMORY -> cells.add(row.memory);
-				case DISK_READ -> cells.add("TODO_R");
-				case DISK_WRITE -> cells.add("TODO_W");
-				case NETWORK -> cells.add("TODO_NET");
+				case PID -> cells.add(String.valueOf(processes.pid(slot)));
+				case NAME -> cells.add(processes.name(slot));
+				case PATH -> cells.add(processes.path(slot));
+				case USER -> cells.add(processes.user(slot));
+				case CPU -> cells.add(UnitFormat.fixed(processes.cpu(slot), cpuAccuracy));
+				case MEMORY -> cells.add(UnitFormat.fixed(processes.memory(slot), memoryAccuracy));
+				case DISK_READ -> cells.add(formatRate(processes.readRate(slot), diskReadFormat));
+				case DISK_WRITE -> cells.add(formatRate(processes.writeRate(slot), diskWriteFormat));
+				case NETWORK -> cells.add(formatRate(processes.network(slot), networkFormat));
 				default -> cells.add("?");
 			}
 		}
-		printRow("", cells);
+		printRow(screen, row, "", cells);
 	}
 
 	/**
 	 * Prints a row with the given color and cells.
 	 */
-	private void printRow(String color, List<String> cells) {
-		StringBuilder sb = new StringBuilder();
-		for (String c : cells) {
-			sb.append(String.format("%-" + cellWidth + "s", truncate(c, cellWidth)));
+	private void printRow(Screen screen, int row, String color, List<String> cells) {
+		String style = tableColor + color;
+		screen.fill(row, 0, cells.size() * cellWidth, style);
+		for (int i = 0; i < cells.size(); i++) {
+			screen.print(row, i * cellWidth, truncate(cells.get(i), cellWidth), style);
 		}
-		System.out.println("\r" + tableColor + color + sb + clearStyling);
+	}
+
+	/**
+	 * Formats a byte rate in the column's unit, or "-" if the counters are not readable.
+	 */
+	private static String formatRate(double bytesPerSecond, UnitFormat format) {
+		return Double.isNaN(bytesPerSecond) ? "-" : format.format(bytesPerSecond);
 	}
 
 	/**
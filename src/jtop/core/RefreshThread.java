@@ -4,7 +4,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * Background thread that periodically refreshes a {@link IRefreshable} component.
  * <p>
- * The thread wakes up at a fixed interval (2 seconds) and calls {@link IRefreshable#refresh()}.
+ * The thread wakes up at a fixed interval (2 seconds unless specified) and calls {@link IRefreshable#refresh()}.
  * Refreshing only occurs if the {@link AtomicBoolean} flag is set to {@code true}.
  * <p>
  * This thread runs as a daemon, allowing the application to exit gracefully.
@@ -12,23 +12,36 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class RefreshThread extends Thread {
 	private final IRefreshable refreshable;
 	private final AtomicBoolean refresh;
+	private final long intervalMillis;
 
 	/**
-	 * Constructs a new RefreshThread.
+	 * Constructs a new RefreshThread that refreshes every 2 seconds.
 	 *
 	 * @param refreshable the component to refresh periodically
 	 * @param refresh     atomic boolean flag controlling whether a refresh should occur
 	 */
 	public RefreshThread(IRefreshable refreshable, AtomicBoolean refresh) {
+		this(refreshable, refresh, 2000);
+	}
+
+	/**
+	 * Constructs a new RefreshThread.
+	 *
+	 * @param refreshable    the component to refresh periodically
+	 * @param refresh        atomic boolean flag controlling whether a refresh should occur
+	 * @param intervalMillis the time between refreshes in milliseconds
+	 */
+	public RefreshThread(IRefreshable refreshable, AtomicBoolean refresh, long intervalMillis) {
 		this.refreshable = refreshable;
 		this.refresh = refresh;
+		this.intervalMillis = intervalMillis;
 		setDaemon(true);
 	}
 
 	/**
 	 * Main loop of the thread.
 	 * <p>
-	 * Sleeps for 2 seconds between updates and refreshes the target object
+	 * Sleeps for the interval between updates and refreshes the target object
 	 * if the {@code refresh} flag is set to {@code true}.
 	 * <p>
 	 * Exits cleanly when interrupted.
@@ -37,7 +50,7 @@ public class RefreshThread extends Thread {
 	public void run() {
 		while (!isInterrupted()) {
 			try {
-				Thread.sleep(2000);
+				Thread.sleep(intervalMillis);
 				if (refresh.get()) {
 					refreshable.refresh();
 				}
@@ -1,20 +1,22 @@
 package jtop.core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import jtop.Isystem.ICpuInfo;
+import jtop.Isystem.IDiskInfo;
 import jtop.Isystem.IMemoryInfo;
-import jtop.Isystem.IPathInfo;
+import jtop.Isystem.INetworkInfo;
+import jtop.Isystem.IProcessCollector;
 import jtop.Isystem.IUptime;
 import jtop.Isystem.ITemperatureInfo;
 import jtop.config.Config;
+import jtop.terminal.Screen;
 import jtop.terminal.TerminalSize;
-import jtop.system.Feature;
+import jtop.system.ProcessStat;
 import jtop.system.SystemInfoFactory;
 import jtop.system.linux.SystemSampler;
+import jtop.util.UnitFormat;
 
 /**
  * Core class responsible for managing, sorting, and displaying running processes.
@@ -30,105 +32,337 @@ public class ShowProcesses implements IRefreshable {
 	private int pageSize;
 	private int cellWidth;
 
-	private List<ProcessRow> cachedProcesses = new ArrayList<>();
+	// terminal size generation the layout above was computed for
+	private int layoutGeneration = -1;
+	private ProcessTableRenderer renderer;
 
-	// system sampler for cached CPU, memory, temps
-	private final SystemSampler sampler = new SystemSampler();
+	// persistent columns keyed by (pid, start time), updated in place on refresh
+	private final ProcessTable table = new ProcessTable();
+
+	// system sampler for cached CPU, memory, temps and their recent history
+	private final SystemSampler sampler = new SystemSampler(config.getInt("header.history.samples", 120));
+
+	// long-term history of the system metrics, bounded by a memory budget
+	private final MetricHistory history =
+			new MetricHistory(config.getInt("history.memory.budget.mb", 8) * 1024L * 1024L);
+
+	// time spans of the history view, shortest first
+	private static final long[] HISTORY_SPANS = {
+			5 * 60_000L, 15 * 60_000L, 3_600_000L, 6 * 3_600_000L,
+			86_400_000L, 3 * 86_400_000L, 7 * 86_400_000L, 30 * 86_400_000L};
+
+	// history view state: whether it is shown, its span, and how far its end lies in the past
+	private boolean historyMode;
+	private int historySpan = 2;
+	private long historyOffset;
+
+	// replay: the recorded time on screen and the player's status; -1 while showing the live system
+	private long replayTime = -1;
+	private String replayStatus = "";
+
+	// last frame on the terminal, so each draw only emits what changed
+	private final Screen screen = new Screen();
 
 	/**
 	 * Constructs a ShowProcesses instance with the specified columns to display.
 	 */
 	public ShowProcesses(InfoType... infos) {
 		infoTypes = List.of(infos);
+
+		IProcessCollector collector = SystemInfoFactory.processes();
+		if (collector != null) {
+			collector.setParallelism(config.getInt("process.collector.parallelism", 0));
+		}
 	}
 
 	/**
 	 * Refreshes the cached list of process rows and system sampler.
+	 * <p>
+	 * All processes are collected in a single pass into {@link ProcessStat}
+	 * snapshots and applied to the persistent {@link ProcessTable}, which only
+	 * resolves name, path and user for processes it has not seen before.
+	 * </p>
 	 */
 	public void refreshProcesses() throws Exception {
-		// Fetch system features
-		IUptime uptimeInfo = SystemInfoFactory.getFeature(Feature.UPTIME).map(f -> (IUptime) f).orElse(null);
-		ICpuInfo cpuInfo = SystemInfoFactory.getFeature(Feature.CPU).map(f -> (ICpuInfo) f).orElse(null);
-		IMemoryInfo memoryInfo = SystemInfoFactory.getFeature(Feature.MEMORY).map(f -> (IMemoryInfo) f).orElse(null);
-		ITemperatureInfo tempInfo = SystemInfoFactory.getFeature(Feature.TEMPERATURE).map(f -> (ITemperatureInfo) f).orElse(null);
-		IPathInfo pathInfo = SystemInfoFactory.getFeature(Feature.PROCESS).map(f -> (IPathInfo) f).orElse(null);
-
-		if (pathInfo instanceof jtop.system.linux.PathInfo pi) {
-			pi.clearCache();
+		List<ProcessStat> processes = collectProcesses();
+
+		// update existing rows in place; only new processes are resolved in full
+		synchronized (this) {
+			sampleSystem();
+			updateTable(processes);
+			orderRows();
 		}
+	}
 
-		// Update system sampler
-		sampler.refresh(cpuInfo, memoryInfo, tempInfo);
+	/**
+	 * Collects one snapshot into the table, sampler and history without
+	 * ordering rows or touching the terminal.
+	 * <p>
+	 * Used by headless modes such as recording, which read the results
+	 * through {@link #getTable()} and {@link #getSampler()}.
+	 * </p>
+	 */
+	public void collect() throws Exception {
+		List<ProcessStat> processes = collectProcesses();
+		synchronized (this) {
+			sampleSystem();
+			updateTable(processes);
+		}
+	}
 
-		// cache memory usage per process
-		Map<Long, Double> memCache = memoryInfo != null ? new HashMap<>() : null;
+	/**
+	 * Collects all processes in one pass and samples their CPU ticks.
+	 * <p>
+	 * Runs without the lock: it only touches the backends, not the state drawn by {@link #draw()}.
+	 * </p>
+	 */
+	private List<ProcessStat> collectProcesses() throws Exception {
+		ICpuInfo cpuInfo = SystemInfoFactory.cpu();
+		IProcessCollector collector = SystemInfoFactory.processes();
 
-		// fetch all processes and sort
-		List<ProcessHandle> processes = new ArrayList<>(ProcessHandle.allProcesses().toList());
-		processes.sort(ProcessSorter.getComparator(sortBy, sortAsc));
+		List<ProcessStat> processes = collector != null ? collector.collect() : new ArrayList<>();
+		if (cpuInfo != null) {
+			cpuInfo.sampleProcesses(processes);
+		}
+		return processes;
+	}
 
-		List<ProcessRow> rows = new ArrayList<>(processes.size());
+	/**
+	 * Refreshes the system sampler and records it in the long-term history.
+	 * <p>
+	 * The sampler's values, rates and recent history are read by {@link #draw()},
+	 * so callers must hold this object's lock.
+	 * </p>
+	 */
+	private void sampleSystem() {
+		ICpuInfo cpuInfo = SystemInfoFactory.cpu();
+		IMemoryInfo memoryInfo = SystemInfoFactory.memory();
+		ITemperatureInfo tempInfo = SystemInfoFactory.temperature();
+		IDiskInfo diskInfo = SystemInfoFactory.disk();
+		INetworkInfo networkInfo = SystemInfoFactory.network();
+
+		sampler.refresh(cpuInfo, memoryInfo, tempInfo, diskInfo, networkInfo);
+		history.record(System.currentTimeMillis(), sampler);
+	}
 
-		for (ProcessHandle ph : processes) {
-			long pid = ph.pid();
-			try {
-				String name = pathInfo != null ? safe(pathInfo.getName(pid)) : "?";
-				String path = pathInfo != null ? safe(pathInfo.getPath(pid)) : "?";
-				String user = ph.info().user().orElse("Unknown");
-
-				String cpuPercent = cpuInfo != null ? String.valueOf(safeCpu(cpuInfo, pid)) : "?";
-
-				String memPercent;
-				if (memoryInfo != null) {
-					Double cached = memCache.get(pid);
-					if (cached == null) {
-						double val = safeMemory(memoryInfo, pid);
-						memCache.put(pid, val);
-						memPercent = String.valueOf(val);
-					} else {
-						memPercent = String.valueOf(cached);
-					}
-				} else {
-					memPercent = "?";
-				}
-
-				rows.add(new ProcessRow(pid, name, path, user, cpuPercent, memPercent));
-			} catch (Exception ignored) {}
-		}
+	private void updateTable(List<ProcessStat> processes) {
+		table.update(processes, SystemInfoFactory.cpu(), SystemInfoFactory.memory(), SystemInfoFactory.path(),
+				SystemInfoFactory.network());
+	}
+
+	/**
+	 * Returns the persistent process table.
+	 * <p>
+	 * Callers outside the refresh cycle must hold this object's lock while reading it.
+	 * </p>
+	 *
+	 * @return the table updated by every refresh
+	 */
+	public ProcessTable getTable() {
+		return table;
+	}
+
+	/**
+	 * Returns the system sampler refreshed together with the table.
+	 * <p>
+	 * Like the table, it is refreshed under this object's lock, so callers outside
+	 * the refresh cycle must hold the lock while reading it.
+	 * </p>
+	 *
+	 * @return the sampler
+	 */
+	public SystemSampler getSampler() {
+		return sampler;
+	}
 
-		cachedProcesses = rows;
+	/**
+	 * Returns the long-term history shown by the history view.
+	 * <p>
+	 * Live, it is fed by every refresh; during replay the player fills it from the recording.
+	 * </p>
+	 *
+	 * @return the history
+	 */
+	public MetricHistory getHistory() {
+		return history;
+	}
+
+	/**
+	 * Switches to, or stays in, showing a recorded snapshot instead of the live system.
+	 * <p>
+	 * The caller fills the table through {@link ProcessTable#restore} and the
+	 * sampler through {@link SystemSampler#restore} while holding this
+	 * object's lock, then calls this method to order the rows for the next
+	 * {@link #draw()}. Live refreshes must not run while replaying.
+	 * </p>
+	 *
+	 * @param time the recorded wall-clock time in milliseconds, used as "now" by the history view
+	 * @param status the player state shown in the footer
+	 */
+	public synchronized void showRecorded(long time, String status) {
+		replayTime = time;
+		replayStatus = status;
+		orderRows();
 	}
 
 	/**
 	 * Draws the process table to the terminal using cached system sampler.
+	 * <p>
+	 * Synchronized because both the refresh thread and the input thread draw,
+	 * and the screen buffer must see whole frames.
+	 * </p>
 	 */
-	public void draw() throws Exception {
-		TerminalSize terminalSize = new TerminalSize();
-		this.pageSize = terminalSize.getRows() - ProcessTableRenderer.getHeaderAndFooterLength();
-		this.cellWidth = terminalSize.getColumns() / infoTypes.size();
+	public synchronized void draw() throws Exception {
+		updateLayout();
 
-		if (cachedProcesses.isEmpty()) {
+		if (table.size() == 0 && replayTime < 0) {
 			refreshProcesses();
 		}
 
+		// scrolled past the rows ordered at the last refresh
+		if (table.ordered() < Math.min(table.size(), scrollIndex + pageSize)) {
+			orderRows();
+		}
+
 		double uptime = 0.0;
 		String load = "?";
 
-		try {
-			IUptime uptimeInfo = SystemInfoFactory.getFeature(Feature.UPTIME).map(f -> (IUptime) f).orElse(null);
-			ICpuInfo cpuInfo = SystemInfoFactory.getFeature(Feature.CPU).map(f -> (ICpuInfo) f).orElse(null);
-			if (uptimeInfo != null) uptime = uptimeInfo.getSystemUptime('h');
-			if (cpuInfo != null) load = cpuInfo.getLoadAverage();
-		} catch (Exception ignored) {}
+		if (replayTime >= 0) {
+			// recordings keep the load but not the uptime
+			uptime = Double.NaN;
+			if (!Double.isNaN(sampler.getLoad())) load = UnitFormat.fixed(sampler.getLoad(), 2);
+		} else {
+			try {
+				IUptime uptimeInfo = SystemInfoFactory.uptime();
+				ICpuInfo cpuInfo = SystemInfoFactory.cpu();
+				if (uptimeInfo != null) uptime = uptimeInfo.getSystemUptime('h');
+				if (cpuInfo != null) load = cpuInfo.getLoadAverage();
+			} catch (Exception ignored) {}
+		}
 
-		new ProcessTableRenderer(config, cellWidth, pageSize, sampler)
-				.draw(cachedProcesses, infoTypes, sortBy, sortAsc, scrollIndex, uptime, load);
+		if (historyMode) {
+			long span = HISTORY_SPANS[historySpan];
+			long to = now() - historyOffset;
+			String end = replayTime >= 0 ? "the replayed time" : "now";
+			String window = formatDuration(span) + " ending " + (historyOffset == 0 ? end : formatDuration(historyOffset) + " before " + end);
+			if (replayTime >= 0) window += " (" + replayStatus + ")";
+			renderer.drawHistory(screen, history, to - span, to, window, uptime, load);
+		} else {
+			renderer.draw(screen, table, infoTypes, sortBy, sortAsc, scrollIndex, uptime, load, replayStatus);
+		}
 	}
 
-	public void scrollUp() { if (scrollIndex > 0) scrollIndex--; }
+	/**
+	 * Switches between the process table and the history view.
+	 */
+	public synchronized void toggleHistory() {
+		historyMode = !historyMode;
+		historyOffset = 0;
+	}
+
+	/**
+	 * Shows a shorter time span in the history view.
+	 */
+	public synchronized void zoomIn() {
+		if (historySpan > 0) historySpan--;
+	}
+
+	/**
+	 * Shows a longer time span in the history view.
+	 */
+	public synchronized void zoomOut() {
+		if (historySpan < HISTORY_SPANS.length - 1) historySpan++;
+	}
+
+	/**
+	 * Moves the history window by a quarter of its span, but not past the oldest data or into the future.
+	 *
+	 * @param back {@code true} to move towards older data
+	 */
+	private synchronized void panHistory(boolean back) {
+		long step = HISTORY_SPANS[historySpan] / 4;
+		long oldest = history.oldest();
+		long limit = oldest == Long.MAX_VALUE ? 0 : Math.max(0, now() - oldest);
+		historyOffset = Math.max(0, Math.min(limit, historyOffset + (back ? step : -step)));
+	}
+
+	/**
+	 * Returns the time the history view treats as the present: the replayed time, or the clock.
+	 */
+	private long now() {
+		return replayTime >= 0 ? replayTime : System.currentTimeMillis();
+	}
+
+	/**
+	 * Formats a duration with its two largest units, e.g. "1h30m".
+	 */
+	private static String formatDuration(long millis) {
+		long seconds = millis / 1000;
+		long[] sizes = {86_400, 3_600, 60, 1};
+		String[] units = {"d", "h", "m", "s"};
+
+		StringBuilder sb = new StringBuilder();
+		int parts = 0;
+		for (int i = 0; i < sizes.length && parts < 2; i++) {
+			long n = seconds / sizes[i];
+			seconds %= sizes[i];
+			// count a zero unit once a larger one was printed, so 1h0m5s shows as "1h"
+			if (n > 0) sb.append(n).append(units[i]);
+			if (n > 0 || parts > 0) parts++;
+		}
+		return sb.length() > 0 ? sb.toString() : "0s";
+	}
+
+	/**
+	 * Orders the rows up to the bottom of the visible window.
+	 * <p>
+	 * Only the top {@code scrollIndex + pageSize} rows are selected and sorted,
+	 * which is O(n log k) for the usual case of viewing the first page. Windows
+	 * deep into the table fall back to a full sort.
+	 * </p>
+	 */
+	private void orderRows() {
+		updateLayout();
+		table.selectTop(ProcessSorter.getComparator(table, sortBy, sortAsc), scrollIndex + pageSize);
+	}
+
+	/**
+	 * Recomputes page size, cell width and the renderer, but only if the terminal size changed.
+	 */
+	private void updateLayout() {
+		int generation = TerminalSize.getGeneration();
+		if (generation == layoutGeneration && renderer != null) return;
+
+		this.pageSize = TerminalSize.getRows() - ProcessTableRenderer.getHeaderAndFooterLength();
+		this.cellWidth = TerminalSize.getColumns() / infoTypes.size();
+		this.renderer = new ProcessTableRenderer(config, cellWidth, pageSize, sampler);
+		this.layoutGeneration = generation;
+	}
+
+	/**
+	 * Returns the number of process rows that fit on the screen.
+	 *
+	 * @return the current page size
+	 */
+	public synchronized int getPageSize() {
+		updateLayout();
+		return pageSize;
+	}
+
+	public void scrollUp() {
+		if (historyMode) {
+			panHistory(true);
+		} else if (scrollIndex > 0) {
+			scrollIndex--;
+		}
+	}
 
 	public void scrollDown() {
-		if (scrollIndex + pageSize < cachedProcesses.size()) scrollIndex++;
+		if (historyMode) {
+			panHistory(false);
+		} else if (scrollIndex + pageSize < table.size()) {
+			scrollIndex++;
+		}
 	}
 
 	public void changeSortByClick(int charPosition) throws Exception {
@@ -136,23 +370,15 @@ public class ShowProcesses implements IRefreshable {
 		changeSort(columnIndex);
 	}
 
-	public void changeSort(int columnIndex) throws Exception {
+	public synchronized void changeSort(int columnIndex) throws Exception {
 		if (columnIndex >= 0 && columnIndex < infoTypes.size()) {
 			InfoType newSort = infoTypes.get(columnIndex);
 			sortAsc = (sortBy == newSort) ? !sortAsc : true;
 			sortBy = newSort;
-			refreshProcesses();
-		}
-	}
-
-	private String safe(String s) { return s != null ? s : "?"; }
 
-	private static double safeCpu(ICpuInfo cpu, long pid) {
-		try { return cpu.getCpuPercent(pid); } catch (Exception e) { return 0.0; }
-	}
-
-	private static double safeMemory(IMemoryInfo mem, long pid) {
-		try { return mem.getMemoryPercent(pid); } catch (Exception e) { return 0.0; }
+			// re-sort the rows already collected instead of collecting again
+			orderRows();
+		}
 	}
 
 	@Override
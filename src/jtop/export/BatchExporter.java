@@ -0,0 +1,330 @@
+package jtop.export;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import jtop.config.Config;
+import jtop.core.InfoType;
+import jtop.core.ProcessSorter;
+import jtop.core.ProcessTable;
+import jtop.core.ShowProcesses;
+import jtop.system.linux.SystemSampler;
+import jtop.util.IntComparator;
+import jtop.util.UnitFormat;
+
+/**
+ * Non-interactive mode that streams process snapshots to standard output, like {@code top -b}.
+ * <p>
+ * Every interval the processes are collected through
+ * {@link ShowProcesses#collect()}, ordered, optionally cut to the top N and
+ * written in one of three formats:
+ * </p>
+ * <ul>
+ *	 <li>{@code csv}: a header line, then one line per process with the snapshot time first (RFC 4180 quoting)</li>
+ *	 <li>{@code tsv}: the same with tabs; tabs and line breaks inside values become spaces</li>
+ *	 <li>{@code ndjson}: one JSON object per snapshot, with the system CPU, memory and load and a process array</li>
+ * </ul>
+ * <p>
+ * Percentages are written as numbers with the accuracy of the table, rates
+ * as whole bytes per second; unavailable values are empty, or {@code null}
+ * in JSON. The first snapshot is written after one interval, so its rates
+ * cover a full interval.
+ * </p>
+ * <p>
+ * Nothing touches the terminal: no raw mode, no escape sequences and no
+ * terminal size queries, so the output can go to a file, a pipe or a log
+ * collector.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Output goes through one buffered writer and is flushed once per snapshot</li>
+ *	 <li>With a top-N limit only the first N rows are ordered, in O(n log N)</li>
+ * </ul>
+ * </p>
+ */
+public class BatchExporter {
+
+	/** Command-line help for the batch options. */
+	public static final String USAGE = "Usage: jtop --batch [--format csv|tsv|ndjson] [--interval <ms>]"
+			+ " [--count <n>] [--columns <PID,NAME,...>] [--top <n>] [--sort <column>]";
+
+	/** Output formats. */
+	enum Format { CSV, TSV, NDJSON }
+
+	private final Format format;
+	private final long intervalMillis;
+	private final int count;
+	private final int top;
+	private final List<InfoType> columns;
+	private final InfoType sortBy;
+	private final boolean sortAsc;
+	private final int cpuAccuracy;
+	private final int memoryAccuracy;
+
+	private final StringBuilder line = new StringBuilder(256);
+
+	/**
+	 * Creates an exporter from the {@code batch.*} settings, overridden by command-line options.
+	 *
+	 * @param config the settings
+	 * @param args the options after {@code --batch}, e.g. {@code --format ndjson --count 1}
+	 * @throws IllegalArgumentException if an option is unknown or has an invalid value
+	 */
+	public BatchExporter(Config config, String[] args) {
+		String formatName = config.getString("batch.format", "csv");
+		String interval = String.valueOf(config.getInt("batch.interval.ms", 2000));
+		String iterations = String.valueOf(config.getInt("batch.count", 0));
+		String limit = String.valueOf(config.getInt("batch.top", 0));
+		String sort = config.getString("batch.sort", "CPU");
+		List<String> columnNames = config.getList("batch.columns", ",",
+				config.getList("table.header.content", ",", List.of("PID", "NAME", "USER", "CPU", "MEMORY")));
+
+		for (int i = 0; i < args.length; i += 2) {
+			String option = args[i];
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option);
+			String value = args[i + 1];
+			switch (option) {
+				case "--format" -> formatName = value;
+				case "--interval" -> interval = value;
+				case "--count" -> iterations = value;
+				case "--top" -> limit = value;
+				case "--sort" -> sort = value;
+				case "--columns" -> columnNames = List.of(value.split(","));
+				default -> throw new IllegalArgumentException("Unknown option " + option);
+			}
+		}
+
+		this.format = parseFormat(formatName);
+		this.intervalMillis = Math.max(100, parseInt("--interval", interval));
+		this.count = parseInt("--count", iterations);
+		this.top = parseInt("--top", limit);
+		this.sortBy = parseColumn(sort);
+		this.sortAsc = config.getBoolean("table.sorting.ASC", false);
+		this.cpuAccuracy = config.getInt("table.value.CPU.accuracy", 3);
+		this.memoryAccuracy = config.getInt("table.value.MEMORY.accuracy", 3);
+
+		List<InfoType> parsed = new ArrayList<>();
+		for (String name : columnNames) {
+			if (!name.isBlank()) parsed.add(parseColumn(name));
+		}
+		if (parsed.isEmpty()) throw new IllegalArgumentException("No columns");
+		this.columns = List.copyOf(parsed);
+	}
+
+	/**
+	 * Writes snapshots until the count is reached, standard output is closed, or the JVM shuts down.
+	 *
+	 * @throws Exception if system information cannot be read or the thread is interrupted
+	 */
+	public void run() throws Exception {
+		Writer out = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 64 * 1024);
+		ShowProcesses showProcesses = new ShowProcesses();
+
+		// the first collection only primes the counters that rates are derived from
+		showProcesses.collect();
+		long next = System.nanoTime();
+		try {
+			if (format != Format.NDJSON) {
+				writeHeader(out);
+			}
+			for (int i = 0; count <= 0 || i < count; i++) {
+				next += intervalMillis * 1_000_000L;
+				long sleep = (next - System.nanoTime()) / 1_000_000L;
+				if (sleep > 0) {
+					Thread.sleep(sleep);
+				} else {
+					next = System.nanoTime();
+				}
+
+				showProcesses.collect();
+				synchronized (showProcesses) {
+					writeSnapshot(out, System.currentTimeMillis(), showProcesses.getTable(), showProcesses.getSampler());
+				}
+				out.flush();
+			}
+		} catch (IOException e) {
+			// the reader went away, e.g. "jtop --batch | head"; nothing left to do
+		}
+	}
+
+	private void writeHeader(Writer out) throws IOException {
+		line.setLength(0);
+		line.append("time");
+		for (InfoType column : columns) {
+			line.append(format == Format.CSV ? ',' : '\t').append(column.name().toLowerCase(Locale.ROOT));
+		}
+		line.append('\n');
+		out.append(line);
+	}
+
+	/**
+	 * Orders the table and writes the rows of one snapshot.
+	 */
+	private void writeSnapshot(Writer out, long time, ProcessTable table, SystemSampler sampler) throws IOException {
+		IntComparator cmp = ProcessSorter.getComparator(table, sortBy, sortAsc);
+		int rows = table.size();
+		if (top > 0 && top < rows) {
+			table.selectTop(cmp, top);
+			rows = top;
+		} else {
+			table.sort(cmp);
+		}
+
+		String timestamp = Instant.ofEpochMilli(time).toString();
+		if (format == Format.NDJSON) {
+			line.setLength(0);
+			line.append("{\"time\":\"").append(timestamp).append('"');
+			line.append(",\"cpu\":");
+			appendJsonNumber(sampler.getCpu(), cpuAccuracy);
+			line.append(",\"memory\":");
+			appendJsonNumber(sampler.getMem(), memoryAccuracy);
+			line.append(",\"load\":");
+			appendJsonNumber(sampler.getLoad(), 2);
+			line.append(",\"processes\":[");
+			out.append(line);
+			for (int row = 0; row < rows; row++) {
+				line.setLength(0);
+				if (row > 0) line.append(',');
+				line.append('{');
+				for (int c = 0; c < columns.size(); c++) {
+					if (c > 0) line.append(',');
+					InfoType column = columns.get(c);
+					line.append('"').append(column.name().toLowerCase(Locale.ROOT)).append("\":");
+					appendJsonValue(table, table.slot(row), column);
+				}
+				line.append('}');
+				out.append(line);
+			}
+			out.append("]}\n");
+			return;
+		}
+
+		char separator = format == Format.CSV ? ',' : '\t';
+		for (int row = 0; row < rows; row++) {
+			int slot = table.slot(row);
+			line.setLength(0);
+			line.append(timestamp);
+			for (InfoType column : columns) {
+				line.append(separator);
+				appendDelimitedValue(table, slot, column);
+			}
+			line.append('\n');
+			out.append(line);
+		}
+	}
+
+	private void appendDelimitedValue(ProcessTable table, int slot, InfoType column) {
+		switch (column) {
+			case NAME, PATH, USER -> {
+				String text = text(table, slot, column);
+				if (format == Format.TSV) {
+					for (int i = 0; i < text.length(); i++) {
+						char ch = text.charAt(i);
+						line.append(ch == '\t' || ch == '\n' || ch == '\r' ? ' ' : ch);
+					}
+				} else if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+						|| text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+					line.append('"').append(text.replace("\"", "\"\"")).append('"');
+				} else {
+					line.append(text);
+				}
+			}
+			default -> {
+				double value = number(table, slot, column);
+				if (!Double.isNaN(value)) line.append(UnitFormat.fixed(value, decimals(column)));
+			}
+		}
+	}
+
+	private void appendJsonValue(ProcessTable table, int slot, InfoType column) {
+		switch (column) {
+			case NAME, PATH, USER -> {
+				String text = text(table, slot, column);
+				line.append('"');
+				for (int i = 0; i < text.length(); i++) {
+					char ch = text.charAt(i);
+					if (ch == '"' || ch == '\\') {
+						line.append('\\').append(ch);
+					} else if (ch < 0x20) {
+						line.append(String.format("\\u%04x", (int) ch));
+					} else {
+						line.append(ch);
+					}
+				}
+				line.append('"');
+			}
+			default -> appendJsonNumber(number(table, slot, column), decimals(column));
+		}
+	}
+
+	private void appendJsonNumber(double value, int decimals) {
+		line.append(Double.isNaN(value) || Double.isInfinite(value) ? "null" : UnitFormat.fixed(value, decimals));
+	}
+
+	private static String text(ProcessTable table, int slot, InfoType column) {
+		String text = switch (column) {
+			case NAME -> table.name(slot);
+			case PATH -> table.path(slot);
+			default -> table.user(slot);
+		};
+		return text != null ? text : "";
+	}
+
+	private static double number(ProcessTable table, int slot, InfoType column) {
+		return switch (column) {
+			case PID -> table.pid(slot);
+			case CPU -> table.cpu(slot);
+			case MEMORY -> table.memory(slot);
+			case DISK_READ -> table.readRate(slot);
+			case DISK_WRITE -> table.writeRate(slot);
+			case NETWORK -> table.network(slot);
+			default -> Double.NaN;
+		};
+	}
+
+	private int decimals(InfoType column) {
+		return switch (column) {
+			case CPU -> cpuAccuracy;
+			case MEMORY -> memoryAccuracy;
+			default -> 0;
+		};
+	}
+
+	private static Format parseFormat(String name) {
+		String normalized = name.strip().toUpperCase(Locale.ROOT);
+		if (normalized.equals("JSON")) return Format.NDJSON;
+		try {
+			return Format.valueOf(normalized);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown format " + name + "; use csv, tsv or ndjson");
+		}
+	}
+
+	private static InfoType parseColumn(String name) {
+		try {
+			return InfoType.valueOf(name.strip().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown column " + name);
+		}
+	}
+
+	private static int parseInt(String option, String value) {
+		try {
+			return Integer.parseInt(value.strip());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid number for " + option + ": " + value);
+		}
+	}
+}
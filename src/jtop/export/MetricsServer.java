@@ -0,0 +1,428 @@
+package jtop.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import jtop.config.Config;
+import jtop.core.MetricHistory;
+import jtop.core.MetricHistory.Series;
+import jtop.core.ProcessTable;
+import jtop.core.ShowProcesses;
+import jtop.util.IntSort;
+
+/**
+ * Serves system and per-process metrics in the OpenMetrics text format on {@code /metrics}.
+ * <p>
+ * A single collector thread runs {@link ShowProcesses#collect()} at a fixed
+ * interval and publishes an immutable snapshot; scrapes only ever read the
+ * latest snapshot and never read <code>/proc</code> themselves, so the cost of
+ * collection does not grow with the number of scrapers. Requests are handled by
+ * the JDK's built-in HTTP server on virtual threads.
+ * </p>
+ * <p>
+ * Processes are grouped by a configurable set of labels ({@code pid},
+ * {@code name}, {@code user}, {@code path}); processes with equal labels are
+ * added up, except the network rate, which is per namespace and therefore
+ * the maximum of the group. Only the busiest groups by CPU are exported, and
+ * label values are truncated, which caps the number and size of series
+ * regardless of how many processes run or how often PIDs change.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>The response is encoded once per snapshot generation, by the first scrape that needs it,
+ *		 together with its gzip form; further scrapes of that generation only copy cached bytes</li>
+ *	 <li>Snapshots are immutable and published through a volatile field, so scrapes take no lock
+ *		 unless they are the first of a generation</li>
+ * </ul>
+ * </p>
+ */
+public class MetricsServer {
+
+	private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+	/** Labels a process series can carry. */
+	private static final List<String> LABELS = List.of("pid", "name", "user", "path");
+
+	// per-group values, in export order
+	private static final int CPU = 0;
+	private static final int MEMORY = 1;
+	private static final int DISK_READ = 2;
+	private static final int DISK_WRITE = 3;
+	private static final int NETWORK = 4;
+	private static final int INSTANCES = 5;
+	private static final int GROUP_VALUES = 6;
+
+	private static final String[][] PROCESS_METRICS = {
+			{"jtop_process_cpu_usage_percent", "CPU usage of the processes"},
+			{"jtop_process_memory_usage_percent", "Memory usage of the processes"},
+			{"jtop_process_disk_read_bytes_per_second", "Bytes read from storage by the processes"},
+			{"jtop_process_disk_write_bytes_per_second", "Bytes written to storage by the processes"},
+			{"jtop_process_network_bytes_per_second", "Network traffic of the namespace of the processes"},
+			{"jtop_process_instances", "Number of processes with these labels"},
+	};
+
+	private final Config config = new Config();
+	private final InetSocketAddress address;
+	private final long intervalMillis;
+	private final int top;
+	private final String[] labels;
+	private final int maxLabelLength;
+
+	private volatile boolean running = true;
+
+	// the pause between snapshots waits on this, so shutdown never interrupts a collection
+	private final Object pause = new Object();
+
+	// latest snapshot and the response encoded from it; null until the first ones exist
+	private volatile Snapshot snapshot;
+	private volatile Response response;
+
+	/**
+	 * Creates a server.
+	 *
+	 * @param address where to listen, as {@code [host]:port}; an empty host listens on all interfaces
+	 * @throws IllegalArgumentException if the address or a label setting is invalid
+	 */
+	public MetricsServer(String address) {
+		this.address = parseAddress(address);
+		this.intervalMillis = Math.max(100, config.getInt("serve.interval.ms", 5000));
+		this.top = Math.max(0, config.getInt("serve.process.top", 20));
+		this.maxLabelLength = Math.max(1, config.getInt("serve.label.max.length", 64));
+
+		List<String> names = config.getList("serve.process.labels", ",", List.of("name", "user"));
+		List<String> parsed = new ArrayList<>();
+		for (String name : names) {
+			String label = name.strip().toLowerCase(Locale.ROOT);
+			if (label.isEmpty()) continue;
+			if (!LABELS.contains(label)) throw new IllegalArgumentException("Unknown process label " + name);
+			if (!parsed.contains(label)) parsed.add(label);
+		}
+		this.labels = parsed.toArray(new String[0]);
+	}
+
+	/**
+	 * Returns the default listen address from the configuration.
+	 *
+	 * @return the {@code serve.address} setting
+	 */
+	public static String defaultAddress() {
+		return new Config().getString("serve.address", ":9100");
+	}
+
+	/**
+	 * Collects and serves until the JVM shuts down.
+	 *
+	 * @throws IOException if the address cannot be bound
+	 * @throws Exception if system information cannot be read or the thread is interrupted
+	 */
+	public void run() throws Exception {
+		ShowProcesses showProcesses = new ShowProcesses();
+		// the first collection only primes the counters that rates are derived from
+		showProcesses.collect();
+
+		ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		HttpServer server = HttpServer.create(address, 0);
+		server.createContext("/metrics", this::handle);
+		server.setExecutor(executor);
+		server.start();
+		System.err.println("jtop: serving metrics on http://" + describe(server.getAddress()) + "/metrics");
+
+		Thread worker = Thread.currentThread();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			running = false;
+			synchronized (pause) {
+				pause.notifyAll();
+			}
+			try {
+				worker.join(5000);
+			} catch (InterruptedException e) {
+				// exit anyway
+			}
+		}));
+
+		double[] series = new double[Series.values().length];
+		long next = System.nanoTime();
+		long generation = 0;
+		try {
+			while (running) {
+				next += intervalMillis * 1_000_000L;
+				long sleep = (next - System.nanoTime()) / 1_000_000L;
+				if (sleep > 0) {
+					synchronized (pause) {
+						if (running) pause.wait(sleep);
+					}
+					if (!running) break;
+				} else {
+					next = System.nanoTime();
+				}
+
+				showProcesses.collect();
+				MetricHistory.sample(showProcesses.getSampler(), series);
+				synchronized (showProcesses) {
+					snapshot = snapshot(++generation, System.currentTimeMillis(), series, showProcesses.getTable());
+				}
+			}
+		} finally {
+			server.stop(0);
+			executor.close();
+		}
+	}
+
+	/**
+	 * Answers a scrape from the cached response of the latest snapshot.
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String method = exchange.getRequestMethod();
+			if (!method.equals("GET") && !method.equals("HEAD")) {
+				exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+
+			Snapshot current = snapshot;
+			if (current == null) {
+				// no full interval collected yet
+				exchange.getResponseHeaders().set("Retry-After", String.valueOf(Math.max(1, intervalMillis / 1000)));
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			Response cached = response;
+			if (cached == null || cached.generation() < current.generation()) {
+				cached = encode(current);
+			}
+
+			String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			boolean gzip = accept != null && accept.contains("gzip");
+			byte[] body = gzip ? cached.gzip() : cached.plain();
+
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			if (gzip) exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+			if (method.equals("HEAD")) {
+				exchange.sendResponseHeaders(200, -1);
+				return;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		}
+	}
+
+	/**
+	 * Copies the exported values out of the table and groups the processes by their labels.
+	 * <p>
+	 * Called with the table locked; the result shares no state with it.
+	 * </p>
+	 */
+	private Snapshot snapshot(long generation, long time, double[] series, ProcessTable table) {
+		Map<String, Integer> index = new HashMap<>();
+		List<String[]> groupLabels = new ArrayList<>();
+		double[] values = new double[64 * GROUP_VALUES];
+
+		String[] key = new String[labels.length];
+		for (int row = 0; row < table.size(); row++) {
+			int slot = table.slot(row);
+			for (int l = 0; l < labels.length; l++) {
+				key[l] = labelValue(table, slot, labels[l]);
+			}
+			int group = index.computeIfAbsent(String.join("\u0000", key), k -> {
+				groupLabels.add(key.clone());
+				return groupLabels.size() - 1;
+			});
+			if ((group + 1) * GROUP_VALUES > values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+
+			int base = group * GROUP_VALUES;
+			values[base + CPU] = add(values[base + CPU], table.cpu(slot));
+			values[base + MEMORY] = add(values[base + MEMORY], table.memory(slot));
+			values[base + DISK_READ] = add(values[base + DISK_READ], table.readRate(slot));
+			values[base + DISK_WRITE] = add(values[base + DISK_WRITE], table.writeRate(slot));
+			double network = table.network(slot);
+			if (!Double.isNaN(network)) values[base + NETWORK] = Math.max(values[base + NETWORK], network);
+			values[base + INSTANCES]++;
+		}
+
+		// busiest groups first, then by labels so the order is stable between snapshots
+		int groups = groupLabels.size();
+		int[] order = new int[groups];
+		for (int g = 0; g < groups; g++) order[g] = g;
+		final double[] sums = values;
+		IntSort.sort(order, 0, groups, new int[groups], (a, b) -> {
+			int cmp = Double.compare(sums[b * GROUP_VALUES + CPU], sums[a * GROUP_VALUES + CPU]);
+			return cmp != 0 ? cmp : Arrays.compare(groupLabels.get(a), groupLabels.get(b));
+		});
+
+		int shown = Math.min(top, groups);
+		String[][] shownLabels = new String[shown][];
+		double[] shownValues = new double[shown * GROUP_VALUES];
+		for (int i = 0; i < shown; i++) {
+			shownLabels[i] = groupLabels.get(order[i]);
+			System.arraycopy(values, order[i] * GROUP_VALUES, shownValues, i * GROUP_VALUES, GROUP_VALUES);
+		}
+		return new Snapshot(generation, time, series.clone(), table.size(), shownLabels, shownValues);
+	}
+
+	/**
+	 * Encodes a snapshot unless a response for it, or a newer one, was encoded meanwhile.
+	 */
+	private synchronized Response encode(Snapshot current) throws IOException {
+		Response cached = response;
+		if (cached != null && cached.generation() >= current.generation()) return cached;
+
+		StringBuilder sb = new StringBuilder(4096);
+		for (Series series : Series.values()) {
+			String[] metric = systemMetric(series);
+			family(sb, metric[0], metric[1]);
+			sb.append(metric[0]).append(' ');
+			value(sb, current.system()[series.ordinal()]);
+			sb.append('\n');
+		}
+
+		family(sb, "jtop_processes", "Number of processes");
+		sb.append("jtop_processes ").append(current.processes()).append('\n');
+
+		family(sb, "jtop_snapshot_timestamp_seconds", "Time the exported values were collected");
+		sb.append("jtop_snapshot_timestamp_seconds ").append(current.time() / 1000).append('.')
+				.append(String.format("%03d", current.time() % 1000)).append('\n');
+
+		for (int m = 0; m < PROCESS_METRICS.length; m++) {
+			family(sb, PROCESS_METRICS[m][0], PROCESS_METRICS[m][1]);
+			for (int g = 0; g < current.labels().length; g++) {
+				sb.append(PROCESS_METRICS[m][0]);
+				appendLabels(sb, current.labels()[g]);
+				sb.append(' ');
+				value(sb, current.values()[g * GROUP_VALUES + m]);
+				sb.append('\n');
+			}
+		}
+		sb.append("# EOF\n");
+
+		byte[] plain = sb.toString().getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(plain.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(plain);
+		}
+
+		cached = new Response(current.generation(), plain, compressed.toByteArray());
+		response = cached;
+		return cached;
+	}
+
+	private void appendLabels(StringBuilder sb, String[] values) {
+		if (labels.length == 0) return;
+		sb.append('{');
+		for (int l = 0; l < labels.length; l++) {
+			if (l > 0) sb.append(',');
+			sb.append(labels[l]).append("=\"");
+			String value = values[l];
+			for (int i = 0; i < value.length(); i++) {
+				char ch = value.charAt(i);
+				switch (ch) {
+					case '\\' -> sb.append("\\\\");
+					case '"' -> sb.append("\\\"");
+					case '\n' -> sb.append("\\n");
+					default -> sb.append(ch);
+				}
+			}
+			sb.append('"');
+		}
+		sb.append('}');
+	}
+
+	private String labelValue(ProcessTable table, int slot, String label) {
+		String value = switch (label) {
+			case "pid" -> String.valueOf(table.pid(slot));
+			case "name" -> table.name(slot);
+			case "user" -> table.user(slot);
+			default -> table.path(slot);
+		};
+		if (value == null) return "";
+		return value.length() > maxLabelLength ? value.substring(0, maxLabelLength) : value;
+	}
+
+	private static String[] systemMetric(Series series) {
+		return switch (series) {
+			case CPU -> new String[] {"jtop_cpu_usage_percent", "System CPU utilization"};
+			case MEMORY -> new String[] {"jtop_memory_usage_percent", "System memory usage"};
+			case LOAD -> new String[] {"jtop_load1", "1-minute load average"};
+			case DISK_READ -> new String[] {"jtop_disk_read_bytes_per_second", "Bytes read from all disks"};
+			case DISK_WRITE -> new String[] {"jtop_disk_write_bytes_per_second", "Bytes written to all disks"};
+			case NET_RX -> new String[] {"jtop_network_receive_bytes_per_second", "Bytes received on all interfaces except loopback"};
+			case NET_TX -> new String[] {"jtop_network_transmit_bytes_per_second", "Bytes sent on all interfaces except loopback"};
+		};
+	}
+
+	private static void family(StringBuilder sb, String name, String help) {
+		sb.append("# TYPE ").append(name).append(" gauge\n");
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+	}
+
+	private static void value(StringBuilder sb, double value) {
+		if (Double.isNaN(value)) {
+			sb.append("NaN");
+		} else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+			sb.append((long) value);
+		} else {
+			sb.append(value);
+		}
+	}
+
+	/**
+	 * Adds a value to a sum, skipping unavailable values.
+	 */
+	private static double add(double sum, double value) {
+		return Double.isNaN(value) ? sum : sum + value;
+	}
+
+	private static InetSocketAddress parseAddress(String address) {
+		int colon = address.lastIndexOf(':');
+		String host = colon < 0 ? "" : address.substring(0, colon);
+		String port = colon < 0 ? address : address.substring(colon + 1);
+		if (host.startsWith("[") && host.endsWith("]")) host = host.substring(1, host.length() - 1);
+		try {
+			int number = Integer.parseInt(port);
+			return host.isEmpty() ? new InetSocketAddress(number) : new InetSocketAddress(host, number);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid address " + address + "; expected [host]:port");
+		}
+	}
+
+	private static String describe(InetSocketAddress address) {
+		String host = address.getAddress().isAnyLocalAddress() ? "0.0.0.0" : address.getHostString();
+		return host + ":" + address.getPort();
+	}
+
+	/**
+	 * Values of one collection, detached from the live table.
+	 *
+	 * @param labels label values per exported process group, busiest first
+	 * @param values {@link #GROUP_VALUES} values per group, in {@link #PROCESS_METRICS} order
+	 */
+	private record Snapshot(long generation, long time, double[] system, int processes, String[][] labels,
+							double[] values) {}
+
+	/**
+	 * Encoded response of one snapshot generation.
+	 */
+	private record Response(long generation, byte[] plain, byte[] gzip) {}
+}
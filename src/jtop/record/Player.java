@@ -0,0 +1,193 @@
+package jtop.record;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import jtop.config.Config;
+import jtop.core.IRefreshable;
+import jtop.core.MetricHistory.Series;
+import jtop.core.ProcessTable;
+import jtop.core.ShowProcesses;
+import jtop.system.linux.SystemSampler;
+
+/**
+ * Plays a recording through a {@link ShowProcesses} in place of the live system.
+ * <p>
+ * A replay clock advances with wall-clock time times the speed factor; on
+ * every {@link #refresh()} the reader decodes the frames the clock has passed
+ * and the newest one is loaded into the process table and the sampler, so
+ * sorting, scrolling and the header work as they do live. The long-term
+ * history is filled from the whole recording when the player is created, and
+ * the history view treats the replayed time as "now".
+ * </p>
+ * <p>
+ * Playback can be paused, stepped a frame at a time, sped up and moved in
+ * time; each control redraws immediately.
+ * </p>
+ */
+public class Player implements IRefreshable {
+
+	/** Interval between two {@link #refresh()} calls, in milliseconds. */
+	public static final long TICK_MILLIS = 200;
+
+	private static final int MAX_SPEED = 64;
+
+	private static final DateTimeFormatter TIME_FORMAT =
+			DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+	private final RecordReader reader;
+	private final ShowProcesses showProcesses;
+	private final long seekStep;
+
+	private boolean paused;
+	private int speed;
+
+	// replayed time in milliseconds, and the wall-clock time it was last advanced at
+	private long clock;
+	private long lastTick;
+
+	/**
+	 * Creates a player and fills the history of {@code showProcesses} from the recording.
+	 *
+	 * @param reader the recording
+	 * @param showProcesses the display to drive; must not be refreshed from the live system
+	 * @param config the settings for speed and seek step
+	 */
+	public Player(RecordReader reader, ShowProcesses showProcesses, Config config) {
+		this.reader = reader;
+		this.showProcesses = showProcesses;
+		this.seekStep = Math.max(1, config.getInt("replay.seek.seconds", 60)) * 1000L;
+		this.speed = Math.max(1, Math.min(MAX_SPEED, config.getInt("replay.speed", 1)));
+		reader.recordSeries(showProcesses.getHistory());
+	}
+
+	/**
+	 * Advances the replay clock and shows the newest frame it has passed.
+	 * <p>
+	 * Playback pauses at the end of the recording.
+	 * </p>
+	 */
+	@Override
+	public synchronized void refresh() {
+		long now = System.nanoTime();
+		long elapsed = lastTick == 0 ? 0 : (now - lastTick) / 1_000_000L;
+		lastTick = now;
+
+		if (reader.frame() < 0) {
+			reader.next();
+			clock = reader.time();
+			show(true);
+			return;
+		}
+		if (paused) return;
+
+		clock += elapsed * speed;
+		int before = reader.frame();
+		while (reader.nextTime() <= clock) {
+			reader.next();
+		}
+		if (reader.nextTime() == Long.MAX_VALUE) {
+			paused = true;
+			clock = reader.time();
+		}
+		if (reader.frame() != before) {
+			show(false);
+		} else if (paused) {
+			showStatus();
+		}
+	}
+
+	/**
+	 * Pauses or resumes playback.
+	 */
+	public synchronized void togglePause() {
+		paused = !paused;
+		showStatus();
+	}
+
+	/**
+	 * Pauses and moves one frame.
+	 *
+	 * @param forward {@code true} for the next frame, {@code false} for the previous one
+	 */
+	public synchronized void step(boolean forward) {
+		paused = true;
+		if (forward) {
+			reader.next();
+		} else {
+			reader.seekFrame(reader.frame() - 1);
+		}
+		clock = reader.time();
+		show(!forward);
+	}
+
+	/**
+	 * Moves the replay clock by the configured seek step.
+	 *
+	 * @param forward {@code true} to move towards the end of the recording
+	 */
+	public synchronized void seek(boolean forward) {
+		clock = Math.max(reader.firstTime(), Math.min(reader.lastTime(), clock + (forward ? seekStep : -seekStep)));
+		reader.seek(clock);
+		show(true);
+	}
+
+	/**
+	 * Doubles the playback speed, up to 64 times real time.
+	 */
+	public synchronized void faster() {
+		speed = Math.min(MAX_SPEED, speed * 2);
+		showStatus();
+	}
+
+	/**
+	 * Halves the playback speed, down to real time.
+	 */
+	public synchronized void slower() {
+		speed = Math.max(1, speed / 2);
+		showStatus();
+	}
+
+	/**
+	 * Loads the current frame into the table and sampler and redraws.
+	 *
+	 * @param jumped whether the frame does not follow the one shown before, so recent history no longer applies
+	 */
+	private void show(boolean jumped) {
+		synchronized (showProcesses) {
+			ProcessTable table = showProcesses.getTable();
+			table.beginRestore();
+			for (int i = 0; i < reader.size(); i++) {
+				table.restore(reader.pid(i), reader.uid(i), reader.name(i), reader.path(i),
+						reader.value(i, RecordFormat.CPU),
+						reader.value(i, RecordFormat.MEMORY),
+						reader.value(i, RecordFormat.DISK_READ),
+						reader.value(i, RecordFormat.DISK_WRITE),
+						reader.value(i, RecordFormat.NETWORK));
+			}
+			table.endRestore();
+
+			SystemSampler sampler = showProcesses.getSampler();
+			if (jumped) sampler.clearHistory();
+			sampler.restore(reader.series(Series.CPU.ordinal()), reader.series(Series.MEMORY.ordinal()),
+					reader.series(Series.LOAD.ordinal()));
+		}
+		showStatus();
+	}
+
+	/**
+	 * Redraws with the current player state in the footer.
+	 */
+	private void showStatus() {
+		String status = String.format("Replay %s, frame %d/%d, x%d%s",
+				TIME_FORMAT.format(Instant.ofEpochMilli(reader.time())),
+				reader.frame() + 1, reader.frames(), speed, paused ? ", paused" : "");
+		try {
+			showProcesses.showRecorded(reader.time(), status);
+			showProcesses.draw();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package jtop.record;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import jtop.core.MetricHistory;
+
+/**
+ * Binary layout of jtop recordings, and the primitive encodings it is built from.
+ * <p>
+ * A recording starts with the 8-byte {@link #MAGIC} and continues with frames,
+ * one per snapshot. Every frame is:
+ * </p>
+ * <pre>
+ * int32    length of the rest of the frame, big-endian
+ * byte     {@link #KEY_FRAME} or {@link #DELTA_FRAME}
+ * varlong  time in ms; in delta frames zigzag(time - previous time)
+ * varlong  {@link #SERIES} system values, each zigzag(value - previous value)
+ * varint   process count
+ * process entries, ascending by PID:
+ *   varlong  zigzag(pid - previous pid in this frame)
+ *   byte     flags; {@link #FLAG_NEW} if the process was not in the previous frame
+ *            under the same (pid, start time), command and owner
+ *   if new:  varlong zigzag(uid), string name, string path
+ *   varlong  {@link #VALUES} process values, each zigzag(value - value in the previous frame),
+ *            or the plain value if new
+ * </pre>
+ * <p>
+ * Values are stored as fixed-point integers via {@link #encode}, with 0
+ * reserved for "unknown". Key frames use 0 as the previous value of
+ * everything and mark every process as new, so decoding can start at any key
+ * frame. A writer emits one at the start of every file and then at a fixed
+ * frame interval.
+ * </p>
+ * <p>
+ * Strings are a varint byte count followed by UTF-8 bytes.
+ * </p>
+ */
+public final class RecordFormat {
+
+	/** First bytes of every recording; the last byte is the format version. */
+	public static final byte[] MAGIC = {'J', 'T', 'O', 'P', 'R', 'E', 'C', 1};
+
+	/** Frame type that can be decoded without the frames before it. */
+	public static final byte KEY_FRAME = 1;
+
+	/** Frame type encoded against the previous frame. */
+	public static final byte DELTA_FRAME = 2;
+
+	/** Bytes before the frame body: the length and the type. */
+	public static final int FRAME_HEADER = 5;
+
+	/** Process flag: name, path and user follow, and values are not deltas. */
+	public static final int FLAG_NEW = 1;
+
+	/** Number of system values per frame, one per {@link MetricHistory.Series}. */
+	public static final int SERIES = MetricHistory.Series.values().length;
+
+	/** Process value: CPU usage in percent. */
+	public static final int CPU = 0;
+	/** Process value: memory usage in percent. */
+	public static final int MEMORY = 1;
+	/** Process value: bytes read from storage per second. */
+	public static final int DISK_READ = 2;
+	/** Process value: bytes written to storage per second. */
+	public static final int DISK_WRITE = 3;
+	/** Process value: network bytes per second of its namespace. */
+	public static final int NETWORK = 4;
+
+	/** Number of values per process. */
+	public static final int VALUES = 5;
+
+	/** Fixed-point factor of each system value, in {@link MetricHistory.Series} order. */
+	static final double[] SERIES_SCALE = {100, 100, 100, 1, 1, 1, 1};
+
+	/** Fixed-point factor of each process value: 0.01 % for percentages, 1 B/s for rates. */
+	static final double[] VALUE_SCALE = {100, 100, 1, 1, 1};
+
+	private RecordFormat() {}
+
+	/**
+	 * Converts a non-negative value to its fixed-point form.
+	 *
+	 * @return 0 for NaN, otherwise the scaled and rounded value plus one
+	 */
+	static long encode(double value, double scale) {
+		return Double.isNaN(value) ? 0 : Math.round(Math.max(0, value) * scale) + 1;
+	}
+
+	/**
+	 * Reverses {@link #encode}.
+	 */
+	static double decode(long value, double scale) {
+		return value == 0 ? Double.NaN : (value - 1) / scale;
+	}
+
+	static long zigzag(long v) {
+		return (v << 1) ^ (v >> 63);
+	}
+
+	static long unzigzag(long v) {
+		return (v >>> 1) ^ -(v & 1);
+	}
+
+	/**
+	 * Writes an unsigned LEB128 varint: 7 bits per byte, low bits first.
+	 */
+	static void putVarLong(ByteBuffer buffer, long v) {
+		while ((v & ~0x7FL) != 0) {
+			buffer.put((byte) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		buffer.put((byte) v);
+	}
+
+	static long getVarLong(ByteBuffer buffer) {
+		long v = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = buffer.get();
+			v |= (long) (b & 0x7F) << shift;
+			if (b >= 0) return v;
+		}
+		throw new IllegalStateException("Malformed varint");
+	}
+
+	static void putString(ByteBuffer buffer, byte[] utf8) {
+		putVarLong(buffer, utf8.length);
+		buffer.put(utf8);
+	}
+
+	static String getString(ByteBuffer buffer) {
+		int length = (int) getVarLong(buffer);
+		if (length < 0 || length > buffer.remaining()) {
+			throw new IllegalStateException("Malformed string length " + length);
+		}
+		byte[] utf8 = new byte[length];
+		buffer.get(utf8);
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,411 @@
+package jtop.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import jtop.core.MetricHistory;
+import jtop.util.LongIntMap;
+
+/**
+ * Reads a recording written by {@link RecordWriter}, frame by frame, with random access by time.
+ * <p>
+ * Opening a recording walks the chain of frame lengths once, reading only the
+ * type and time of each frame, and keeps a sparse index with the position,
+ * number and time of every key frame. Seeking binary-searches that index and
+ * decodes forward from the nearest key frame, so it costs O(log k) plus at
+ * most one key frame interval of decoding, however long the recording is.
+ * </p>
+ * <p>
+ * A frame cut off at the end of the file, as left by a crash, is ignored.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>The file is memory-mapped in segments of up to 1 GiB, so large recordings are paged in on demand</li>
+ *	 <li>Segments start at frame boundaries; no frame is ever split between two buffers</li>
+ *	 <li>Names and paths are only decoded for new processes and otherwise carried over from the previous frame</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class RecordReader implements Closeable {
+
+	private static final long SEGMENT_BYTES = 1L << 30;
+
+	private final FileChannel channel;
+
+	// mapped segments, ascending by file offset
+	private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+	private long[] segmentStarts = new long[0];
+
+	// sparse index: one entry per key frame
+	private long[] keyOffsets = new long[0];
+	private int[] keyFrames = new int[0];
+	private long[] keyTimes = new long[0];
+	private int keyCount;
+
+	private int frameCount;
+	private long firstTime;
+	private long lastTime;
+
+	// decoding position: the current frame and the offset of the next one
+	private int frame = -1;
+	private long nextOffset = RecordFormat.MAGIC.length;
+	private long time;
+	private final long[] series = new long[RecordFormat.SERIES];
+	private Frame current = new Frame();
+	private Frame previous = new Frame();
+
+	/**
+	 * Opens a recording and builds its key frame index.
+	 *
+	 * @param path the recording
+	 * @throws IOException if the file cannot be read, is not a recording, or does not start with a key frame
+	 */
+	public RecordReader(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			index();
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e instanceof IOException io ? io : new IOException("Malformed recording " + path, e);
+		}
+		if (frameCount == 0) {
+			channel.close();
+			throw new IOException("No frames in " + path);
+		}
+	}
+
+	/** @return the number of complete frames */
+	public int frames() { return frameCount; }
+
+	/** @return the time of the first frame in milliseconds */
+	public long firstTime() { return firstTime; }
+
+	/** @return the time of the last frame in milliseconds */
+	public long lastTime() { return lastTime; }
+
+	/** @return the number of the current frame, or -1 before the first {@link #next()} */
+	public int frame() { return frame; }
+
+	/** @return the time of the current frame in milliseconds */
+	public long time() { return time; }
+
+	/**
+	 * Returns a system value of the current frame.
+	 *
+	 * @param series the {@link MetricHistory.Series} ordinal
+	 * @return the value, or NaN if it was not available when recording
+	 */
+	public double series(int series) {
+		return RecordFormat.decode(this.series[series], RecordFormat.SERIES_SCALE[series]);
+	}
+
+	/** @return the number of processes in the current frame */
+	public int size() { return current.count; }
+
+	/** @return the process ID of the i-th process of the current frame, ascending by PID */
+	public long pid(int i) { return current.pids[i]; }
+
+	/** @return the real user ID of the i-th process of the current frame */
+	public int uid(int i) { return current.uids[i]; }
+
+	/** @return the name of the i-th process of the current frame */
+	public String name(int i) { return current.names[i]; }
+
+	/** @return the executable path of the i-th process of the current frame */
+	public String path(int i) { return current.paths[i]; }
+
+	/**
+	 * Returns a value of a process of the current frame.
+	 *
+	 * @param i the process index
+	 * @param field a process value such as {@link RecordFormat#CPU}
+	 * @return the value, or NaN if it was not available when recording
+	 */
+	public double value(int i, int field) {
+		return RecordFormat.decode(current.values[i * RecordFormat.VALUES + field], RecordFormat.VALUE_SCALE[field]);
+	}
+
+	/**
+	 * Returns the time of the frame after the current one without decoding it.
+	 *
+	 * @return the time in milliseconds, or {@link Long#MAX_VALUE} at the end of the recording
+	 */
+	public long nextTime() {
+		if (frame + 1 >= frameCount) return Long.MAX_VALUE;
+		ByteBuffer buffer = frameBuffer(nextOffset);
+		boolean key = buffer.get() == RecordFormat.KEY_FRAME;
+		long value = RecordFormat.getVarLong(buffer);
+		return key ? value : time + RecordFormat.unzigzag(value);
+	}
+
+	/**
+	 * Decodes the next frame.
+	 *
+	 * @return {@code false} if the current frame is the last one
+	 */
+	public boolean next() {
+		if (frame + 1 >= frameCount) return false;
+		decode(nextOffset);
+		frame++;
+		return true;
+	}
+
+	/**
+	 * Moves to the last frame recorded at or before a time, or to the first frame if there is none.
+	 *
+	 * @param target the time in milliseconds
+	 */
+	public void seek(long target) {
+		int k = Math.max(0, floor(keyTimes, keyCount, target));
+		start(k);
+		while (nextTime() <= target) next();
+	}
+
+	/**
+	 * Moves to a frame by number.
+	 *
+	 * @param target the frame number, clamped to the recording
+	 */
+	public void seekFrame(int target) {
+		target = Math.max(0, Math.min(frameCount - 1, target));
+		int k = floor(keyFrames, target);
+		// decoding forward from the current frame is less work when it lies after the key frame
+		if (target < frame || frame < keyFrames[k]) start(k);
+		while (frame < target) next();
+	}
+
+	/**
+	 * Feeds the system values of every frame into a history, without decoding any processes.
+	 *
+	 * @param history the history to record into
+	 */
+	public void recordSeries(MetricHistory history) {
+		long[] raw = new long[RecordFormat.SERIES];
+		double[] values = new double[RecordFormat.SERIES];
+		long t = 0;
+		long offset = RecordFormat.MAGIC.length;
+		for (int f = 0; f < frameCount; f++) {
+			ByteBuffer buffer = frameBuffer(offset);
+			boolean key = buffer.get() == RecordFormat.KEY_FRAME;
+			long value = RecordFormat.getVarLong(buffer);
+			t = key ? value : t + RecordFormat.unzigzag(value);
+			for (int s = 0; s < raw.length; s++) {
+				raw[s] = (key ? 0 : raw[s]) + RecordFormat.unzigzag(RecordFormat.getVarLong(buffer));
+				values[s] = RecordFormat.decode(raw[s], RecordFormat.SERIES_SCALE[s]);
+			}
+			history.record(t, values);
+			offset = buffer.limit() + segmentStart(offset);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Positions the reader on a key frame from the index.
+	 */
+	private void start(int k) {
+		frame = keyFrames[k] - 1;
+		nextOffset = keyOffsets[k];
+		next();
+	}
+
+	/**
+	 * Decodes the frame at a file offset on top of the current frame.
+	 */
+	private void decode(long offset) {
+		ByteBuffer buffer = frameBuffer(offset);
+		boolean key = buffer.get() == RecordFormat.KEY_FRAME;
+
+		long value = RecordFormat.getVarLong(buffer);
+		time = key ? value : time + RecordFormat.unzigzag(value);
+		for (int s = 0; s < series.length; s++) {
+			series[s] = (key ? 0 : series[s]) + RecordFormat.unzigzag(RecordFormat.getVarLong(buffer));
+		}
+
+		Frame swap = previous;
+		previous = current;
+		current = swap;
+
+		int count = (int) RecordFormat.getVarLong(buffer);
+		current.clear(count);
+		long pid = 0;
+		for (int i = 0; i < count; i++) {
+			pid += RecordFormat.unzigzag(RecordFormat.getVarLong(buffer));
+			boolean isNew = (buffer.get() & RecordFormat.FLAG_NEW) != 0;
+
+			int p = -1;
+			if (isNew) {
+				current.uids[i] = (int) RecordFormat.unzigzag(RecordFormat.getVarLong(buffer));
+				current.names[i] = RecordFormat.getString(buffer);
+				current.paths[i] = RecordFormat.getString(buffer);
+			} else {
+				p = previous.index.get(pid, -1);
+				if (p < 0) {
+					throw new IllegalStateException("Delta for unknown PID " + pid + " in frame " + (frame + 1));
+				}
+				current.uids[i] = previous.uids[p];
+				current.names[i] = previous.names[p];
+				current.paths[i] = previous.paths[p];
+			}
+			current.index.put(pid, i);
+			current.pids[i] = pid;
+
+			for (int v = 0; v < RecordFormat.VALUES; v++) {
+				long base = p < 0 ? 0 : previous.values[p * RecordFormat.VALUES + v];
+				current.values[i * RecordFormat.VALUES + v] = base + RecordFormat.unzigzag(RecordFormat.getVarLong(buffer));
+			}
+		}
+		current.count = count;
+		nextOffset = buffer.limit() + segmentStart(offset);
+	}
+
+	/**
+	 * Returns the mapped segment holding a frame, positioned after its length and limited to its end.
+	 */
+	private ByteBuffer frameBuffer(long offset) {
+		int s = floor(segmentStarts, segmentStarts.length, offset);
+		MappedByteBuffer segment = segments[s];
+		int position = (int) (offset - segmentStarts[s]);
+		segment.clear();
+		int length = segment.getInt(position);
+		segment.limit(position + 4 + length).position(position + 4);
+		return segment;
+	}
+
+	private long segmentStart(long offset) {
+		return segmentStarts[floor(segmentStarts, segmentStarts.length, offset)];
+	}
+
+	/**
+	 * Maps the file and walks all frame headers once to build the key frame index.
+	 */
+	private void index() throws IOException {
+		long size = channel.size();
+		ByteBuffer magic = ByteBuffer.allocate(RecordFormat.MAGIC.length);
+		if (size < magic.capacity() || channel.read(magic, 0) < magic.capacity()
+				|| !Arrays.equals(magic.array(), RecordFormat.MAGIC)) {
+			throw new IOException("Not a jtop recording");
+		}
+
+		long offset = RecordFormat.MAGIC.length;
+		map(0, size);
+		long t = 0;
+		while (offset + 4 <= size) {
+			int s = segments.length - 1;
+			long segmentEnd = segmentStarts[s] + segments[s].capacity();
+			if (offset + 4 > segmentEnd) {
+				map(offset, size);
+				continue;
+			}
+
+			int length = segments[s].clear().getInt((int) (offset - segmentStarts[s]));
+			long frameEnd = offset + 4 + length;
+			if (length < 1 || frameEnd > size) break;
+			if (frameEnd > segmentEnd) {
+				if (offset == segmentStarts[s]) throw new IOException("Frame larger than a segment at " + offset);
+				map(offset, size);
+				continue;
+			}
+
+			ByteBuffer buffer = frameBuffer(offset);
+			byte type = buffer.get();
+			long value = RecordFormat.getVarLong(buffer);
+			if (type == RecordFormat.KEY_FRAME) {
+				t = value;
+				addKey(offset, frameCount, t);
+			} else if (type == RecordFormat.DELTA_FRAME && frameCount > 0) {
+				t += RecordFormat.unzigzag(value);
+			} else {
+				throw new IOException("Unexpected frame type " + type + " at " + offset);
+			}
+
+			if (frameCount == 0) firstTime = t;
+			lastTime = t;
+			frameCount++;
+			offset = frameEnd;
+		}
+	}
+
+	/**
+	 * Maps the part of the file starting at a frame boundary as the next segment.
+	 */
+	private void map(long start, long size) throws IOException {
+		long length = Math.min(SEGMENT_BYTES, size - start);
+		MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		segments = Arrays.copyOf(segments, segments.length + 1);
+		segmentStarts = Arrays.copyOf(segmentStarts, segmentStarts.length + 1);
+		segments[segments.length - 1] = segment;
+		segmentStarts[segmentStarts.length - 1] = start;
+	}
+
+	private void addKey(long offset, int frameNumber, long keyTime) {
+		if (keyCount == keyOffsets.length) {
+			int capacity = Math.max(64, keyCount * 2);
+			keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+			keyFrames = Arrays.copyOf(keyFrames, capacity);
+			keyTimes = Arrays.copyOf(keyTimes, capacity);
+		}
+		keyOffsets[keyCount] = offset;
+		keyFrames[keyCount] = frameNumber;
+		keyTimes[keyCount] = keyTime;
+		keyCount++;
+	}
+
+	/**
+	 * Returns the index of the last of the first {@code length} entries at or below a value, or -1 if there is none.
+	 */
+	private static int floor(long[] sorted, int length, long value) {
+		int i = Arrays.binarySearch(sorted, 0, length, value);
+		// with duplicates binarySearch may return any of them; keep the last
+		while (i >= 0 && i + 1 < length && sorted[i + 1] == value) i++;
+		return i >= 0 ? i : -i - 2;
+	}
+
+	/**
+	 * Returns the index of the last key frame at or before a frame number.
+	 */
+	private int floor(int[] sorted, int value) {
+		int i = Arrays.binarySearch(sorted, 0, keyCount, value);
+		return i >= 0 ? i : -i - 2;
+	}
+
+	/**
+	 * Processes of one decoded frame, indexed by their position in PID order.
+	 */
+	private static final class Frame {
+		final LongIntMap index = new LongIntMap();
+		int count;
+		long[] pids = new long[0];
+		int[] uids = new int[0];
+		String[] names = new String[0];
+		String[] paths = new String[0];
+		long[] values = new long[0];
+
+		void clear(int capacity) {
+			index.clear();
+			count = 0;
+			if (pids.length < capacity) {
+				int size = Math.max(capacity, pids.length * 2);
+				pids = new long[size];
+				uids = new int[size];
+				names = new String[size];
+				paths = new String[size];
+				values = new long[size * RecordFormat.VALUES];
+			}
+		}
+	}
+}
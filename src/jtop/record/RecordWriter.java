@@ -0,0 +1,307 @@
+package jtop.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import jtop.core.ProcessTable;
+import jtop.util.IntSort;
+import jtop.util.LongIntMap;
+
+/**
+ * Appends snapshots to a recording in the {@link RecordFormat} layout.
+ * <p>
+ * Each snapshot becomes one frame, delta-encoded against the previous frame,
+ * with a key frame at a fixed interval. When the file would grow beyond its
+ * size cap it is rotated: <code>file</code> becomes <code>file.1</code>,
+ * <code>file.1</code> becomes <code>file.2</code>, and so on, keeping a fixed
+ * number of files. The new file starts with a key frame, so every file can be
+ * replayed on its own.
+ * </p>
+ * <p>
+ * An existing recording is continued rather than overwritten; a frame left
+ * incomplete by a crash is cut off first.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Frames are encoded into one reused direct buffer and written with a single channel write</li>
+ *	 <li>Names and paths are only written when a process first appears, executes another program or changes its owner</li>
+ *	 <li>Unchanged values cost one byte; typical delta frames take a few bytes per process</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class RecordWriter implements Closeable {
+
+	/** Upper bound of the bytes a process entry takes besides its name and path. */
+	private static final int MAX_ENTRY_BYTES = 10 + 1 + 10 + 2 * 5 + RecordFormat.VALUES * 10;
+
+	private final Path path;
+	private final long maxBytes;
+	private final int files;
+	private final int keyInterval;
+
+	private FileChannel channel;
+	private long size;
+	private int sinceKey;
+
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+	private int[] order = new int[0];
+	private int[] scratch = new int[0];
+
+	// state of the last written frame; "next" is filled while encoding and swapped in after writing
+	private long previousTime;
+	private final long[] previousSeries = new long[RecordFormat.SERIES];
+	private final long[] nextSeries = new long[RecordFormat.SERIES];
+	private Frame previous = new Frame();
+	private Frame next = new Frame();
+
+	/**
+	 * Opens a recording for appending.
+	 *
+	 * @param path the file to write
+	 * @param maxBytes the size at which the file is rotated
+	 * @param files the number of files to keep, including the current one
+	 * @param keyInterval the number of frames from one key frame to the next
+	 * @throws IOException if the file cannot be opened
+	 */
+	public RecordWriter(Path path, long maxBytes, int files, int keyInterval) throws IOException {
+		this.path = path;
+		this.maxBytes = Math.max(64 * 1024, maxBytes);
+		this.files = Math.max(1, files);
+		this.keyInterval = Math.max(1, keyInterval);
+		open(true);
+	}
+
+	/**
+	 * Appends one snapshot.
+	 *
+	 * @param time the wall-clock time in milliseconds
+	 * @param series the system values, one per {@link jtop.core.MetricHistory.Series}
+	 * @param table the processes; read but not reordered
+	 * @throws IOException if writing fails
+	 */
+	public void write(long time, double[] series, ProcessTable table) throws IOException {
+		boolean key = sinceKey == 0 || sinceKey >= keyInterval;
+		encode(time, series, table, key);
+
+		if (size + buffer.remaining() > maxBytes && size > RecordFormat.MAGIC.length) {
+			rotate();
+			encode(time, series, table, true);
+			key = true;
+		}
+
+		while (buffer.hasRemaining()) {
+			size += channel.write(buffer);
+		}
+
+		previousTime = time;
+		System.arraycopy(nextSeries, 0, previousSeries, 0, nextSeries.length);
+		Frame swap = previous;
+		previous = next;
+		next = swap;
+		sinceKey = key ? 1 : sinceKey + 1;
+	}
+
+	/**
+	 * Returns the size of the current file.
+	 *
+	 * @return the size in bytes
+	 */
+	public long size() {
+		return size;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Encodes a frame into {@link #buffer}, leaving it ready to be written.
+	 */
+	private void encode(long time, double[] series, ProcessTable table, boolean key) {
+		int count = table.size();
+		sortByPid(table, count);
+		next.clear(count);
+
+		buffer.clear();
+		buffer.position(RecordFormat.FRAME_HEADER);
+		RecordFormat.putVarLong(buffer, key ? time : RecordFormat.zigzag(time - previousTime));
+		for (int s = 0; s < RecordFormat.SERIES; s++) {
+			nextSeries[s] = RecordFormat.encode(series[s], RecordFormat.SERIES_SCALE[s]);
+			long base = key ? 0 : previousSeries[s];
+			RecordFormat.putVarLong(buffer, RecordFormat.zigzag(nextSeries[s] - base));
+		}
+		RecordFormat.putVarLong(buffer, count);
+
+		long lastPid = 0;
+		for (int i = 0; i < count; i++) {
+			int slot = order[i];
+			long pid = table.pid(slot);
+			String name = table.name(slot);
+			String path = table.path(slot);
+
+			int p = key ? -1 : previous.index.get(pid, -1);
+			boolean isNew = p < 0 || previous.keys[p] != table.key(slot) || previous.uids[p] != table.uid(slot)
+					|| !name.equals(previous.names[p]) || !path.equals(previous.paths[p]);
+
+			byte[] nameBytes = isNew ? name.getBytes(StandardCharsets.UTF_8) : null;
+			byte[] pathBytes = isNew ? path.getBytes(StandardCharsets.UTF_8) : null;
+			ensure(MAX_ENTRY_BYTES + (isNew ? nameBytes.length + pathBytes.length : 0));
+
+			RecordFormat.putVarLong(buffer, RecordFormat.zigzag(pid - lastPid));
+			lastPid = pid;
+			buffer.put((byte) (isNew ? RecordFormat.FLAG_NEW : 0));
+			if (isNew) {
+				RecordFormat.putVarLong(buffer, RecordFormat.zigzag(table.uid(slot)));
+				RecordFormat.putString(buffer, nameBytes);
+				RecordFormat.putString(buffer, pathBytes);
+			}
+
+			next.add(i, pid, table.key(slot), table.uid(slot), name, path);
+			encodeValue(i, p, isNew, RecordFormat.CPU, table.cpu(slot));
+			encodeValue(i, p, isNew, RecordFormat.MEMORY, table.memory(slot));
+			encodeValue(i, p, isNew, RecordFormat.DISK_READ, table.readRate(slot));
+			encodeValue(i, p, isNew, RecordFormat.DISK_WRITE, table.writeRate(slot));
+			encodeValue(i, p, isNew, RecordFormat.NETWORK, table.network(slot));
+		}
+
+		buffer.flip();
+		buffer.putInt(0, buffer.limit() - 4);
+		buffer.put(4, key ? RecordFormat.KEY_FRAME : RecordFormat.DELTA_FRAME);
+	}
+
+	private void encodeValue(int i, int p, boolean isNew, int field, double value) {
+		long encoded = RecordFormat.encode(value, RecordFormat.VALUE_SCALE[field]);
+		long base = isNew ? 0 : previous.values[p * RecordFormat.VALUES + field];
+		next.values[i * RecordFormat.VALUES + field] = encoded;
+		RecordFormat.putVarLong(buffer, RecordFormat.zigzag(encoded - base));
+	}
+
+	/**
+	 * Fills {@link #order} with the table's slots in ascending PID order.
+	 */
+	private void sortByPid(ProcessTable table, int count) {
+		if (order.length < count) {
+			order = new int[count];
+			scratch = new int[count];
+		}
+		for (int i = 0; i < count; i++) order[i] = table.slot(i);
+		IntSort.sort(order, 0, count, scratch, (a, b) -> Long.compare(table.pid(a), table.pid(b)));
+	}
+
+	/**
+	 * Grows the buffer so that at least {@code bytes} more fit.
+	 */
+	private void ensure(int bytes) {
+		if (buffer.remaining() >= bytes) return;
+		ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+		buffer.flip();
+		larger.put(buffer);
+		buffer = larger;
+	}
+
+	/**
+	 * Shifts the existing files by one, dropping the oldest, and starts a new file.
+	 */
+	private void rotate() throws IOException {
+		channel.close();
+		for (int i = files - 1; i >= 1; i--) {
+			Path source = i == 1 ? path : sibling(i - 1);
+			if (Files.exists(source)) {
+				Files.move(source, sibling(i), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		open(false);
+	}
+
+	private Path sibling(int index) {
+		return path.resolveSibling(path.getFileName() + "." + index);
+	}
+
+	/**
+	 * Opens the file, continuing a valid recording if {@code resume} is set.
+	 */
+	private void open(boolean resume) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long end = resume ? lastCompleteFrame() : -1;
+		if (end < 0) {
+			channel.truncate(0);
+			channel.write(ByteBuffer.wrap(RecordFormat.MAGIC), 0);
+			end = RecordFormat.MAGIC.length;
+		}
+		channel.truncate(end);
+		channel.position(end);
+		size = end;
+		sinceKey = 0;
+	}
+
+	/**
+	 * Returns the end of the last complete frame of an existing recording.
+	 *
+	 * @return the offset, or -1 if the file is empty or not a recording
+	 */
+	private long lastCompleteFrame() throws IOException {
+		long fileSize = channel.size();
+		ByteBuffer header = ByteBuffer.allocate(RecordFormat.MAGIC.length);
+		if (fileSize < header.capacity() || channel.read(header, 0) < header.capacity()
+				|| !Arrays.equals(header.array(), RecordFormat.MAGIC)) {
+			return -1;
+		}
+
+		long position = RecordFormat.MAGIC.length;
+		ByteBuffer length = ByteBuffer.allocate(4);
+		while (position + 4 <= fileSize) {
+			length.clear();
+			if (channel.read(length, position) < 4) break;
+			long end = position + 4 + length.getInt(0);
+			if (length.getInt(0) < 1 || end > fileSize) break;
+			position = end;
+		}
+		return position;
+	}
+
+	/**
+	 * Per-process state of one frame, indexed by the position in PID order.
+	 */
+	private static final class Frame {
+		final LongIntMap index = new LongIntMap();
+		long[] keys = new long[0];
+		int[] uids = new int[0];
+		String[] names = new String[0];
+		String[] paths = new String[0];
+		long[] values = new long[0];
+
+		void clear(int count) {
+			index.clear();
+			if (keys.length < count) {
+				int capacity = Math.max(count, keys.length * 2);
+				keys = new long[capacity];
+				uids = new int[capacity];
+				names = new String[capacity];
+				paths = new String[capacity];
+				values = new long[capacity * RecordFormat.VALUES];
+			}
+		}
+
+		void add(int i, long pid, long key, int uid, String name, String path) {
+			index.put(pid, i);
+			keys[i] = key;
+			uids[i] = uid;
+			names[i] = name;
+			paths[i] = path;
+		}
+	}
+}
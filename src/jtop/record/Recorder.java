@@ -0,0 +1,89 @@
+package jtop.record;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jtop.config.Config;
+import jtop.core.MetricHistory;
+import jtop.core.ShowProcesses;
+
+/**
+ * Headless mode that records snapshots to a file instead of drawing them.
+ * <p>
+ * Runs the same collection as the interactive view through
+ * {@link ShowProcesses#collect()}, at a fixed rate, and appends each snapshot
+ * through a {@link RecordWriter}. No terminal is configured or queried.
+ * Recording stops when the JVM shuts down, for example on Ctrl+C or SIGTERM;
+ * shutdown waits for the frame being written, so the file ends on a complete frame.
+ * </p>
+ */
+public class Recorder {
+
+	private final Config config = new Config();
+	private final Path path;
+	private volatile boolean running = true;
+
+	// the pause between snapshots waits on this, so shutdown never interrupts a write
+	private final Object pause = new Object();
+
+	/**
+	 * Creates a recorder.
+	 *
+	 * @param path the recording file; an existing recording is continued
+	 */
+	public Recorder(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Records until the JVM shuts down.
+	 *
+	 * @throws IOException if the recording cannot be opened or written
+	 * @throws Exception if system information cannot be read or the thread is interrupted
+	 */
+	public void run() throws Exception {
+		long interval = Math.max(100, config.getInt("record.interval.ms", 2000));
+		long maxBytes = config.getInt("record.max.size.mb", 64) * 1024L * 1024L;
+		int files = config.getInt("record.files", 3);
+		int keyInterval = config.getInt("record.keyframe.interval", 30);
+
+		ShowProcesses showProcesses = new ShowProcesses();
+		double[] series = new double[RecordFormat.SERIES];
+
+		Thread worker = Thread.currentThread();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			running = false;
+			synchronized (pause) {
+				pause.notifyAll();
+			}
+			try {
+				worker.join(5000);
+			} catch (InterruptedException e) {
+				// exit anyway
+			}
+		}));
+
+		try (RecordWriter writer = new RecordWriter(path, maxBytes, files, keyInterval)) {
+			System.err.println("jtop: recording to " + path + " every " + interval + " ms");
+			long next = System.nanoTime();
+			while (running) {
+				showProcesses.collect();
+				MetricHistory.sample(showProcesses.getSampler(), series);
+				synchronized (showProcesses) {
+					writer.write(System.currentTimeMillis(), series, showProcesses.getTable());
+				}
+
+				// fixed rate: a slow collection shortens the following pause
+				next += interval * 1_000_000L;
+				long sleep = (next - System.nanoTime()) / 1_000_000L;
+				if (sleep <= 0) {
+					next = System.nanoTime();
+					continue;
+				}
+				synchronized (pause) {
+					if (running) pause.wait(sleep);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package jtop.system;
+
+/**
+ * Immutable snapshot of the cumulative CPU time counters of the system.
+ * <p>
+ * Holds the first eight columns of the aggregate <code>cpu</code> line of
+ * <code>/proc/stat</code> and of every per-core <code>cpuN</code> line, in clock
+ * ticks since boot. All rows live in one flat primitive array: row 0 is the
+ * aggregate, row {@code n + 1} is the n-th online core. The guest columns are
+ * left out on purpose: the kernel already includes guest time in
+ * {@link #USER} and {@link #NICE}, so adding them again would count it twice.
+ * </p>
+ * <p>
+ * Utilization is always computed from the difference between two snapshots,
+ * so no sampling delay is needed: callers keep the previous snapshot and pass
+ * it to {@link #utilization(CpuTimes)} or {@link #breakdown(CpuTimes)}.
+ * </p>
+ */
+public final class CpuTimes {
+
+	/** Time spent in user mode. */
+	public static final int USER = 0;
+	/** Time spent in user mode with low priority. */
+	public static final int NICE = 1;
+	/** Time spent in kernel mode. */
+	public static final int SYSTEM = 2;
+	/** Time spent idle. */
+	public static final int IDLE = 3;
+	/** Time spent idle while waiting for I/O. */
+	public static final int IOWAIT = 4;
+	/** Time spent servicing hardware interrupts. */
+	public static final int IRQ = 5;
+	/** Time spent servicing soft interrupts. */
+	public static final int SOFTIRQ = 6;
+	/** Time stolen by the hypervisor for other guests. */
+	public static final int STEAL = 7;
+
+	/** Number of counters per row. */
+	public static final int FIELDS = 8;
+
+	/** Short labels of the counters, in index order. */
+	public static final String[] LABELS = {"user", "nice", "system", "idle", "iowait", "irq", "softirq", "steal"};
+
+	/** Aggregate row followed by one row per core, {@link #FIELDS} counters each. */
+	private final long[] ticks;
+	private final int cores;
+
+	/**
+	 * Creates an aggregate-only snapshot from raw counters.
+	 *
+	 * @param ticks the counters in index order; missing trailing values count as 0
+	 */
+	public CpuTimes(long[] ticks) {
+		this.ticks = new long[FIELDS];
+		this.cores = 0;
+		System.arraycopy(ticks, 0, this.ticks, 0, Math.min(FIELDS, ticks.length));
+	}
+
+	/**
+	 * Creates a snapshot with per-core counters.
+	 * <p>
+	 * The array is taken over without copying and must not be modified afterwards.
+	 * </p>
+	 *
+	 * @param ticks {@code (cores + 1) * FIELDS} counters: the aggregate row, then one row per core
+	 * @param cores the number of per-core rows
+	 */
+	public CpuTimes(long[] ticks, int cores) {
+		if (ticks.length < (cores + 1) * FIELDS) {
+			throw new IllegalArgumentException("Expected " + (cores + 1) * FIELDS + " counters, got " + ticks.length);
+		}
+		this.ticks = ticks;
+		this.cores = cores;
+	}
+
+	/**
+	 * Returns the number of cores with their own counters.
+	 *
+	 * @return the number of per-core rows, 0 if only the aggregate is known
+	 */
+	public int cores() {
+		return cores;
+	}
+
+	/**
+	 * Returns one aggregate counter.
+	 *
+	 * @param field the counter index, e.g. {@link #USER}
+	 * @return the cumulative value in clock ticks
+	 */
+	public long get(int field) {
+		return ticks[field];
+	}
+
+	/**
+	 * Returns one counter of a single core.
+	 *
+	 * @param core the zero-based core row
+	 * @param field the counter index, e.g. {@link #USER}
+	 * @return the cumulative value in clock ticks
+	 */
+	public long get(int core, int field) {
+		return ticks[(core + 1) * FIELDS + field];
+	}
+
+	/**
+	 * Returns the sum of all aggregate counters.
+	 *
+	 * @return the total elapsed CPU time in clock ticks
+	 */
+	public long total() {
+		return rowTotal(ticks, 0);
+	}
+
+	/**
+	 * Computes the share of each counter in the interval since {@code previous}.
+	 *
+	 * @param previous the earlier snapshot, or {@code null} to measure since boot
+	 * @return an array of {@link #FIELDS} percentages that add up to 100,
+	 *		 or all zeros if no time elapsed
+	 */
+	public double[] breakdown(CpuTimes previous) {
+		double[] percent = new double[FIELDS];
+		long totalDelta = total() - (previous != null ? previous.total() : 0);
+		if (totalDelta <= 0) return percent;
+
+		for (int i = 0; i < FIELDS; i++) {
+			long delta = ticks[i] - (previous != null ? previous.ticks[i] : 0);
+			percent[i] = 100.0 * Math.max(0, delta) / totalDelta;
+		}
+		return percent;
+	}
+
+	/**
+	 * Computes the CPU utilization in the interval since {@code previous}.
+	 * <p>
+	 * Only user, nice and system time count as busy. Idle, I/O wait, interrupt
+	 * and steal time are reported separately by {@link #breakdown(CpuTimes)}
+	 * and do not inflate the figure.
+	 * </p>
+	 *
+	 * @param previous the earlier snapshot, or {@code null} to measure since boot
+	 * @return the utilization as a percentage, or 0 if no time elapsed
+	 */
+	public double utilization(CpuTimes previous) {
+		double[] percent = breakdown(previous);
+		return percent[USER] + percent[NICE] + percent[SYSTEM];
+	}
+
+	/**
+	 * Computes the utilization of every core in the interval since {@code previous}.
+	 * <p>
+	 * Uses the same definition of busy time as {@link #utilization(CpuTimes)}.
+	 * If the number of online cores changed since {@code previous}, the values
+	 * are measured since boot instead.
+	 * </p>
+	 *
+	 * @param previous the earlier snapshot, or {@code null} to measure since boot
+	 * @return one percentage per core, in core order
+	 */
+	public double[] coreUtilization(CpuTimes previous) {
+		double[] percent = new double[cores];
+		long[] before = previous != null && previous.cores == cores ? previous.ticks : null;
+
+		for (int core = 0; core < cores; core++) {
+			int base = (core + 1) * FIELDS;
+			long totalDelta = rowTotal(ticks, base) - (before != null ? rowTotal(before, base) : 0);
+			if (totalDelta <= 0) continue;
+
+			long busy = ticks[base + USER] + ticks[base + NICE] + ticks[base + SYSTEM];
+			if (before != null) {
+				busy -= before[base + USER] + before[base + NICE] + before[base + SYSTEM];
+			}
+			percent[core] = 100.0 * Math.max(0, busy) / totalDelta;
+		}
+		return percent;
+	}
+
+	/**
+	 * Sums the {@link #FIELDS} counters of the row starting at {@code base}.
+	 */
+	private static long rowTotal(long[] ticks, int base) {
+		long sum = 0;
+		for (int i = base; i < base + FIELDS; i++) sum += ticks[i];
+		return sum;
+	}
+}
@@ -0,0 +1,162 @@
+package jtop.system;
+
+/**
+ * Immutable snapshot of the cumulative I/O counters of all whole block devices.
+ * <p>
+ * Holds the columns of <code>/proc/diskstats</code> needed for throughput,
+ * IOPS, latency and utilization, for every device in one flat primitive array
+ * with {@link #FIELDS} counters per device. Partitions are not included, since
+ * their I/O is already counted by the disk they belong to.
+ * </p>
+ * <p>
+ * Like {@link CpuTimes}, rates are always computed from the difference between
+ * two snapshots: callers keep the previous snapshot and pass it to
+ * {@link #rates(DiskStats)}.
+ * </p>
+ */
+public final class DiskStats {
+
+	/** Reads completed. */
+	public static final int READS = 0;
+	/** Sectors read. */
+	public static final int READ_SECTORS = 1;
+	/** Milliseconds spent on reads, summed over all requests. */
+	public static final int READ_MS = 2;
+	/** Writes completed. */
+	public static final int WRITES = 3;
+	/** Sectors written. */
+	public static final int WRITE_SECTORS = 4;
+	/** Milliseconds spent on writes, summed over all requests. */
+	public static final int WRITE_MS = 5;
+	/** Milliseconds during which the device had I/O in flight. */
+	public static final int IO_MS = 6;
+
+	/** Number of counters per device. */
+	public static final int FIELDS = 7;
+
+	/** Bytes read per second. */
+	public static final int READ_BYTES_PER_SEC = 0;
+	/** Bytes written per second. */
+	public static final int WRITE_BYTES_PER_SEC = 1;
+	/** Reads completed per second. */
+	public static final int READ_IOPS = 2;
+	/** Writes completed per second. */
+	public static final int WRITE_IOPS = 3;
+	/** Average time per completed request in milliseconds, queueing included. */
+	public static final int AWAIT_MS = 4;
+	/** Share of elapsed time the device was busy, in percent. */
+	public static final int UTIL_PERCENT = 5;
+
+	/** Number of values per device returned by {@link #rates(DiskStats)}. */
+	public static final int RATE_FIELDS = 6;
+
+	/** The kernel reports sectors in units of 512 bytes, whatever the device's real sector size. */
+	public static final int SECTOR_BYTES = 512;
+
+	private final String[] devices;
+	private final long[] counters;
+	private final long nanos;
+
+	/**
+	 * Creates a snapshot.
+	 * <p>
+	 * The arrays are taken over without copying and must not be modified afterwards.
+	 * </p>
+	 *
+	 * @param devices the device names
+	 * @param counters {@code devices.length * FIELDS} counters, one row per device
+	 * @param nanos the {@link System#nanoTime()} at which the counters were read
+	 */
+	public DiskStats(String[] devices, long[] counters, long nanos) {
+		if (counters.length < devices.length * FIELDS) {
+			throw new IllegalArgumentException("Expected " + devices.length * FIELDS + " counters, got " + counters.length);
+		}
+		this.devices = devices;
+		this.counters = counters;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of devices.
+	 *
+	 * @return the number of device rows
+	 */
+	public int count() {
+		return devices.length;
+	}
+
+	/**
+	 * Returns the name of a device.
+	 *
+	 * @param device the zero-based device row
+	 * @return the kernel device name, e.g. "sda"
+	 */
+	public String device(int device) {
+		return devices[device];
+	}
+
+	/**
+	 * Returns one counter of a device.
+	 *
+	 * @param device the zero-based device row
+	 * @param field the counter index, e.g. {@link #READ_SECTORS}
+	 * @return the cumulative value
+	 */
+	public long get(int device, int field) {
+		return counters[device * FIELDS + field];
+	}
+
+	/**
+	 * Computes the rates of every device in the interval since {@code previous}.
+	 * <p>
+	 * Devices that did not exist in {@code previous} report zeros.
+	 * </p>
+	 *
+	 * @param previous the earlier snapshot, or {@code null}
+	 * @return {@code count() * RATE_FIELDS} values, one row per device in device order,
+	 *		 indexed by {@link #READ_BYTES_PER_SEC} through {@link #UTIL_PERCENT}
+	 */
+	public double[] rates(DiskStats previous) {
+		double[] rates = new double[devices.length * RATE_FIELDS];
+		if (previous == null) return rates;
+
+		double seconds = (nanos - previous.nanos) / 1e9;
+		if (seconds <= 0) return rates;
+
+		for (int d = 0; d < devices.length; d++) {
+			int p = previous.indexOf(devices[d], d);
+			if (p < 0) continue;
+
+			long reads = delta(d, previous, p, READS);
+			long writes = delta(d, previous, p, WRITES);
+			long requestMs = delta(d, previous, p, READ_MS) + delta(d, previous, p, WRITE_MS);
+
+			int base = d * RATE_FIELDS;
+			rates[base + READ_BYTES_PER_SEC] = delta(d, previous, p, READ_SECTORS) * SECTOR_BYTES / seconds;
+			rates[base + WRITE_BYTES_PER_SEC] = delta(d, previous, p, WRITE_SECTORS) * SECTOR_BYTES / seconds;
+			rates[base + READ_IOPS] = reads / seconds;
+			rates[base + WRITE_IOPS] = writes / seconds;
+			rates[base + AWAIT_MS] = reads + writes > 0 ? (double) requestMs / (reads + writes) : 0;
+			rates[base + UTIL_PERCENT] = Math.min(100.0, delta(d, previous, p, IO_MS) / (seconds * 10.0));
+		}
+		return rates;
+	}
+
+	/**
+	 * Returns the row of a device, checking {@code hint} first since devices rarely change order.
+	 */
+	private int indexOf(String device, int hint) {
+		if (hint < devices.length && devices[hint].equals(device)) return hint;
+		for (int i = 0; i < devices.length; i++) {
+			if (devices[i].equals(device)) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the increase of a counter, treating a counter reset as no change.
+	 */
+	private long delta(int device, DiskStats previous, int previousDevice, int field) {
+		return Math.max(0, get(device, field) - previous.get(previousDevice, field));
+	}
+}
@@ -15,7 +15,8 @@ public enum Feature {
     TEMPERATURE("TemperatureInfo"),
     BATTERY("BatteryInfo"),
     UPTIME("Uptime"),
-    PROCESS("PathInfo");
+    PROCESS("PathInfo"),
+    PROCESS_LIST("ProcessCollector");
 
     /** Name of the implementation class for this feature. */
     private final String implClassName;
@@ -0,0 +1,130 @@
+package jtop.system;
+
+/**
+ * Immutable snapshot of the cumulative counters of all network interfaces.
+ * <p>
+ * Holds the byte, packet, error and drop columns of <code>/proc/net/dev</code>
+ * for both directions, for every interface in one flat primitive array with
+ * {@link #FIELDS} counters per interface.
+ * </p>
+ * <p>
+ * Like {@link DiskStats}, rates are always computed from the difference between
+ * two snapshots: callers keep the previous snapshot and pass it to
+ * {@link #rates(NetworkStats)}.
+ * </p>
+ */
+public final class NetworkStats {
+
+	/** Bytes received. */
+	public static final int RX_BYTES = 0;
+	/** Packets received. */
+	public static final int RX_PACKETS = 1;
+	/** Receive errors. */
+	public static final int RX_ERRORS = 2;
+	/** Received packets dropped. */
+	public static final int RX_DROPS = 3;
+	/** Bytes transmitted. */
+	public static final int TX_BYTES = 4;
+	/** Packets transmitted. */
+	public static final int TX_PACKETS = 5;
+	/** Transmit errors. */
+	public static final int TX_ERRORS = 6;
+	/** Packets dropped on transmit. */
+	public static final int TX_DROPS = 7;
+
+	/** Number of counters per interface; rates use the same indices. */
+	public static final int FIELDS = 8;
+
+	private final String[] interfaces;
+	private final long[] counters;
+	private final long nanos;
+
+	/**
+	 * Creates a snapshot.
+	 * <p>
+	 * The arrays are taken over without copying and must not be modified afterwards.
+	 * </p>
+	 *
+	 * @param interfaces the interface names
+	 * @param counters {@code interfaces.length * FIELDS} counters, one row per interface
+	 * @param nanos the {@link System#nanoTime()} at which the counters were read
+	 */
+	public NetworkStats(String[] interfaces, long[] counters, long nanos) {
+		if (counters.length < interfaces.length * FIELDS) {
+			throw new IllegalArgumentException("Expected " + interfaces.length * FIELDS + " counters, got " + counters.length);
+		}
+		this.interfaces = interfaces;
+		this.counters = counters;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of interfaces.
+	 *
+	 * @return the number of interface rows
+	 */
+	public int count() {
+		return interfaces.length;
+	}
+
+	/**
+	 * Returns the name of an interface.
+	 *
+	 * @param iface the zero-based interface row
+	 * @return the interface name, e.g. "eth0"
+	 */
+	public String name(int iface) {
+		return interfaces[iface];
+	}
+
+	/**
+	 * Returns one counter of an interface.
+	 *
+	 * @param iface the zero-based interface row
+	 * @param field the counter index, e.g. {@link #RX_BYTES}
+	 * @return the cumulative value
+	 */
+	public long get(int iface, int field) {
+		return counters[iface * FIELDS + field];
+	}
+
+	/**
+	 * Computes the per-second rate of every counter in the interval since {@code previous}.
+	 * <p>
+	 * Interfaces that did not exist in {@code previous} report zeros, as do
+	 * counters that went backwards, e.g. after an interface was recreated.
+	 * </p>
+	 *
+	 * @param previous the earlier snapshot, or {@code null}
+	 * @return {@code count() * FIELDS} values, one row per interface in interface order,
+	 *		 indexed by {@link #RX_BYTES} through {@link #TX_DROPS}
+	 */
+	public double[] rates(NetworkStats previous) {
+		double[] rates = new double[interfaces.length * FIELDS];
+		if (previous == null) return rates;
+
+		double seconds = (nanos - previous.nanos) / 1e9;
+		if (seconds <= 0) return rates;
+
+		for (int i = 0; i < interfaces.length; i++) {
+			int p = previous.indexOf(interfaces[i], i);
+			if (p < 0) continue;
+
+			for (int f = 0; f < FIELDS; f++) {
+				rates[i * FIELDS + f] = Math.max(0, get(i, f) - previous.get(p, f)) / seconds;
+			}
+		}
+		return rates;
+	}
+
+	/**
+	 * Returns the row of an interface, checking {@code hint} first since interfaces rarely change order.
+	 */
+	private int indexOf(String iface, int hint) {
+		if (hint < interfaces.length && interfaces[hint].equals(iface)) return hint;
+		for (int i = 0; i < interfaces.length; i++) {
+			if (interfaces[i].equals(iface)) return i;
+		}
+		return -1;
+	}
+}
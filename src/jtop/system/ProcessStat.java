@@ -0,0 +1,104 @@
+package jtop.system;
+
+/**
+ * Immutable snapshot of a single process, collected in one pass.
+ * <p>
+ * On Linux every field is parsed from <code>/proc/[pid]/stat</code>,
+ * <code>/proc/[pid]/statm</code> and <code>/proc/[pid]/status</code>, which are
+ * each opened exactly once per refresh, plus <code>/proc/[pid]/io</code> for
+ * processes whose I/O counters jtop is permitted to read. Consumers such as CPU, memory, path and
+ * state lookups read from this record instead of going back to <code>/proc</code>.
+ * </p>
+ * <p>
+ * Platforms without <code>/proc</code> fill in what {@link ProcessHandle} offers
+ * and leave the remaining fields at their neutral values.
+ * </p>
+ *
+ * @param pid the process ID
+ * @param ppid the parent process ID, or 0 if unknown
+ * @param name the short command name (e.g. "java"), as reported by the kernel
+ * @param state the one-letter state code (R, S, D, T, Z, X), or '?' if unknown
+ * @param utime CPU time spent in user mode, in clock ticks
+ * @param stime CPU time spent in kernel mode, in clock ticks
+ * @param startTime process start time in clock ticks; together with {@code pid}
+ *				  it identifies one process instance across PID reuse
+ * @param threads number of threads, or 0 if unknown
+ * @param vsizeBytes virtual memory size in bytes, or 0 if unknown
+ * @param rssPages resident set size in pages, or 0 if unknown
+ * @param uid real user ID of the owner, or -1 if unknown
+ * @param readBytes bytes fetched from storage, or -1 if unknown
+ * @param writeBytes bytes sent to storage, or -1 if unknown
+ * @param readCalls read system calls, or -1 if unknown
+ * @param writeCalls write system calls, or -1 if unknown
+ */
+public record ProcessStat(
+		long pid,
+		long ppid,
+		String name,
+		char state,
+		long utime,
+		long stime,
+		long startTime,
+		int threads,
+		long vsizeBytes,
+		long rssPages,
+		int uid,
+		long readBytes,
+		long writeBytes,
+		long readCalls,
+		long writeCalls
+) {
+
+	/**
+	 * Creates a snapshot without I/O counters.
+	 */
+	public ProcessStat(long pid, long ppid, String name, char state, long utime, long stime, long startTime,
+			int threads, long vsizeBytes, long rssPages, int uid) {
+		this(pid, ppid, name, state, utime, stime, startTime, threads, vsizeBytes, rssPages, uid, -1, -1, -1, -1);
+	}
+
+	/** Number of low bits reserved for the PID in {@link #key()}; Linux caps PIDs at 2^22. */
+	private static final int PID_BITS = 22;
+
+	/**
+	 * Packs a PID and start time into one {@code long} that identifies a process instance.
+	 * <p>
+	 * Two processes that reuse the same PID get different keys because their
+	 * start times differ.
+	 * </p>
+	 *
+	 * @param pid the process ID
+	 * @param startTime the process start time in clock ticks
+	 * @return the packed key
+	 */
+	public static long key(long pid, long startTime) {
+		return (startTime << PID_BITS) ^ pid;
+	}
+
+	/**
+	 * Returns the packed (pid, start time) key of this process.
+	 *
+	 * @return the key, see {@link #key(long, long)}
+	 */
+	public long key() {
+		return key(pid, startTime);
+	}
+
+	/**
+	 * Returns the total CPU time consumed by the process.
+	 *
+	 * @return user plus kernel time in clock ticks
+	 */
+	public long totalTicks() {
+		return utime + stime;
+	}
+
+	/**
+	 * Returns whether the I/O counters were readable.
+	 *
+	 * @return {@code true} if {@link #readBytes()} and the other I/O counters are valid
+	 */
+	public boolean hasIo() {
+		return readBytes >= 0;
+	}
+}
@@ -1,45 +1,106 @@
 package jtop.system;
 
+import java.io.PrintStream;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import jtop.Isystem.IBatteryInfo;
+import jtop.Isystem.ICpuInfo;
+import jtop.Isystem.IDiskInfo;
+import jtop.Isystem.IMemoryInfo;
+import jtop.Isystem.INetworkInfo;
+import jtop.Isystem.IPathInfo;
+import jtop.Isystem.IProcessCollector;
+import jtop.Isystem.ITemperatureInfo;
+import jtop.Isystem.IUptime;
+
 /**
- * Factory to provide system information implementations dynamically
- * based on the current OS and available features.
+ * Registry of system information implementations for the current OS.
+ * <p>
+ * Every supported {@link Feature} is resolved exactly once, when this class is
+ * first used, into a singleton backend. All callers share these instances, so
+ * per-instance state such as caches and sampling history survives between
+ * refreshes. Backends are expected to be thread-safe because the refresh and
+ * input threads use them concurrently.
+ * </p>
  * <p>
- * Fully enum-driven: no need to manually add getters for each feature.
+ * Hot paths should use the typed accessors such as {@link #cpu()}, which return
+ * {@code null} for unsupported features instead of wrapping the result in an
+ * {@link Optional}. The time spent constructing each backend is recorded and
+ * can be printed with {@link #printInitReport(PrintStream)}.
+ * </p>
  */
 public final class SystemInfoFactory {
 
 	private static final OperatingSystem OS = OperatingSystem.detect();
 	private static final Set<Feature> SUPPORTED_FEATURES = FeatureResolver.supported(OS);
 
+	/** Singleton backend per feature; unsupported or failed features are absent. */
+	private static final Map<Feature, Object> INSTANCES = new EnumMap<>(Feature.class);
+
+	/** Construction time per feature in nanoseconds, including failed attempts. */
+	private static final Map<Feature, Long> INIT_NANOS = new EnumMap<>(Feature.class);
+
+	static {
+		for (Feature feature : SUPPORTED_FEATURES) {
+			long start = System.nanoTime();
+			Object instance = instantiate(feature);
+			INIT_NANOS.put(feature, System.nanoTime() - start);
+			if (instance != null) {
+				INSTANCES.put(feature, instance);
+			}
+		}
+	}
+
+	private static final ICpuInfo CPU = typed(Feature.CPU, ICpuInfo.class);
+	private static final IMemoryInfo MEMORY = typed(Feature.MEMORY, IMemoryInfo.class);
+	private static final IDiskInfo DISK = typed(Feature.DISK, IDiskInfo.class);
+	private static final INetworkInfo NETWORK = typed(Feature.NETWORK, INetworkInfo.class);
+	private static final ITemperatureInfo TEMPERATURE = typed(Feature.TEMPERATURE, ITemperatureInfo.class);
+	private static final IBatteryInfo BATTERY = typed(Feature.BATTERY, IBatteryInfo.class);
+	private static final IUptime UPTIME = typed(Feature.UPTIME, IUptime.class);
+	private static final IPathInfo PATH = typed(Feature.PROCESS, IPathInfo.class);
+	private static final IProcessCollector PROCESS_LIST = typed(Feature.PROCESS_LIST, IProcessCollector.class);
+
 	private SystemInfoFactory() {}
 
 	/**
-	 * Returns an implementation of the requested feature if available for this OS.
+	 * Returns the shared implementation of the requested feature if available for this OS.
 	 *
 	 * @param feature the feature to request
 	 * @return Optional containing the implementation, empty if not supported
 	 */
 	@SuppressWarnings("unchecked")
 	public static <T> Optional<T> getFeature(Feature feature) {
-		if (!SUPPORTED_FEATURES.contains(feature)) return Optional.empty();
+		return Optional.ofNullable((T) INSTANCES.get(feature));
+	}
 
-		String className = String.format(
-				"jtop.system.%s.%s",
-				OS.name().toLowerCase(),
-				feature.getImplementationClassName()
-		);
+	/** @return the CPU backend, or {@code null} if not supported */
+	public static ICpuInfo cpu() { return CPU; }
 
-		try {
-			Class<?> clazz = Class.forName(className);
-			return Optional.of((T) clazz.getDeclaredConstructor().newInstance());
-		} catch (Exception e) {
-			System.err.println("Failed to load " + className + ": " + e.getMessage());
-			return Optional.empty();
-		}
-	}
+	/** @return the memory backend, or {@code null} if not supported */
+	public static IMemoryInfo memory() { return MEMORY; }
+
+	/** @return the disk backend, or {@code null} if not supported */
+	public static IDiskInfo disk() { return DISK; }
+
+	/** @return the network backend, or {@code null} if not supported */
+	public static INetworkInfo network() { return NETWORK; }
+
+	/** @return the temperature backend, or {@code null} if not supported */
+	public static ITemperatureInfo temperature() { return TEMPERATURE; }
+
+	/** @return the battery backend, or {@code null} if not supported */
+	public static IBatteryInfo battery() { return BATTERY; }
+
+	/** @return the uptime backend, or {@code null} if not supported */
+	public static IUptime uptime() { return UPTIME; }
+
+	/** @return the process path backend, or {@code null} if not supported */
+	public static IPathInfo path() { return PATH; }
+
+	/** @return the process collector, or {@code null} if not supported */
+	public static IProcessCollector processes() { return PROCESS_LIST; }
 
 	/**
 	 * Returns all supported features for this OS.
@@ -54,8 +115,65 @@ public final class SystemInfoFactory {
 	 * Features not supported on this OS are skipped.
 	 */
 	public static Map<Feature, Object> allAvailableFeatures() {
-		return SUPPORTED_FEATURES.stream()
-				.flatMap(f -> getFeature(f).map(inst -> Map.entry(f, inst)).stream())
-				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		return Collections.unmodifiableMap(INSTANCES);
+	}
+
+	/**
+	 * Returns how long it took to construct the backend of a feature.
+	 *
+	 * @param feature the feature to query
+	 * @return construction time in nanoseconds, or -1 if the feature is not supported
+	 */
+	public static long getInitNanos(Feature feature) {
+		return INIT_NANOS.getOrDefault(feature, -1L);
+	}
+
+	/**
+	 * Prints the construction time of every supported feature, slowest first.
+	 *
+	 * @param out the stream to print to
+	 */
+	public static void printInitReport(PrintStream out) {
+		long total = INIT_NANOS.values().stream().mapToLong(Long::longValue).sum();
+		out.printf("Feature initialization on %s (total %.3f ms)%n", OS, total / 1e6);
+
+		List<Map.Entry<Feature, Long>> entries = INIT_NANOS.entrySet().stream()
+				.sorted(Map.Entry.<Feature, Long>comparingByValue().reversed())
+				.collect(Collectors.toList());
+		for (Map.Entry<Feature, Long> entry : entries) {
+			String status = INSTANCES.containsKey(entry.getKey()) ? "" : " (failed)";
+			out.printf("  %-12s %10.3f ms%s%n", entry.getKey(), entry.getValue() / 1e6, status);
+		}
+	}
+
+	/**
+	 * Instantiates the OS-specific implementation of a feature by class name.
+	 *
+	 * @return the new instance, or {@code null} if it could not be created
+	 */
+	private static Object instantiate(Feature feature) {
+		String className = String.format(
+				"jtop.system.%s.%s",
+				OS.name().toLowerCase(),
+				feature.getImplementationClassName()
+		);
+
+		try {
+			Class<?> clazz = Class.forName(className);
+			return clazz.getDeclaredConstructor().newInstance();
+		} catch (Exception e) {
+			System.err.println("Failed to load " + className + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the resolved backend of a feature cast to its interface.
+	 *
+	 * @return the backend, or {@code null} if absent or of the wrong type
+	 */
+	private static <T> T typed(Feature feature, Class<T> type) {
+		Object instance = INSTANCES.get(feature);
+		return type.isInstance(instance) ? type.cast(instance) : null;
 	}
 }
@@ -0,0 +1,225 @@
+package jtop.system;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached mapping between numeric user IDs and user names.
+ * <p>
+ * The table is loaded from <code>/etc/passwd</code> on first use and reloaded
+ * only when {@link #revalidate()} sees that the file's modification time changed.
+ * Users that are not listed there (for example accounts from LDAP or other NSS
+ * sources) are resolved once through {@code getent passwd} or {@code id}, and
+ * the answer, including a miss, is cached until the next reload.
+ * </p>
+ * <p>
+ * Processes are stored by numeric user ID; the process table looks up a name
+ * once when a process appears or changes its owner, and again for all
+ * processes after a reload.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Names of user IDs below {@link #DENSE_LIMIT} are held in a plain array, so lookups never box</li>
+ *	 <li>Names are interned, so equal users compare by identity</li>
+ *	 <li>At most one external command per unknown user and reload</li>
+ * </ul>
+ * </p>
+ */
+public class UserNames {
+
+	private static final Path PASSWD = Path.of("/etc/passwd");
+
+	/** User IDs below this limit are stored in {@link #dense}; others in {@link #sparse}. */
+	private static final int DENSE_LIMIT = 1 << 16;
+
+	/** Shown for processes whose owner is unknown. */
+	private static final String UNKNOWN = "Unknown";
+
+	private static String[] dense = new String[0];
+	private static final Map<Integer, String> sparse = new HashMap<>();
+	private static final Map<String, Integer> byName = new HashMap<>();
+
+	private static long loadedModified = Long.MIN_VALUE;
+
+	private UserNames() {}
+
+	/**
+	 * Returns the name of a user.
+	 *
+	 * @param uid the numeric user ID
+	 * @return the user name, the numeric ID as text if it cannot be resolved,
+	 *		 or "Unknown" if {@code uid} is negative
+	 */
+	public static synchronized String name(int uid) {
+		if (uid < 0) return UNKNOWN;
+		ensureLoaded();
+
+		String name = lookupStored(uid);
+		if (name == null) {
+			name = resolveExternal(uid);
+			store(uid, name);
+		}
+		return name;
+	}
+
+	/**
+	 * Returns the numeric ID of a user.
+	 * <p>
+	 * Used by backends that only learn the owner's name, such as those based on {@link ProcessHandle}.
+	 * </p>
+	 *
+	 * @param name the user name
+	 * @return the user ID, or -1 if it cannot be resolved
+	 */
+	public static synchronized int uid(String name) {
+		if (name == null || name.isEmpty()) return -1;
+		ensureLoaded();
+
+		Integer uid = byName.get(name);
+		if (uid == null) {
+			String line = run("id", "-u", name);
+			uid = parseInt(line, -1);
+			byName.put(name, uid);
+			if (uid >= 0) store(uid, name.intern());
+		}
+		return uid;
+	}
+
+	/**
+	 * Reloads the table if <code>/etc/passwd</code> changed since it was loaded.
+	 * <p>
+	 * Costs one {@code stat} call; callers invoke it once per refresh.
+	 * </p>
+	 *
+	 * @return {@code true} if the table was reloaded, so names looked up before may be outdated
+	 */
+	public static synchronized boolean revalidate() {
+		if (lastModified() != loadedModified) {
+			load();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Loads the table on first use.
+	 */
+	private static void ensureLoaded() {
+		if (loadedModified == Long.MIN_VALUE) {
+			load();
+		}
+	}
+
+	/**
+	 * Replaces the table with the content of <code>/etc/passwd</code>.
+	 */
+	private static void load() {
+		dense = new String[0];
+		sparse.clear();
+		byName.clear();
+		loadedModified = lastModified();
+
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(PASSWD);
+		} catch (IOException e) {
+			return; // no local table; every lookup falls back to NSS
+		}
+
+		// name:password:uid:gid:gecos:home:shell
+		for (String line : lines) {
+			if (line.isEmpty() || line.charAt(0) == '#') continue;
+			int first = line.indexOf(':');
+			int second = first < 0 ? -1 : line.indexOf(':', first + 1);
+			int third = second < 0 ? -1 : line.indexOf(':', second + 1);
+			if (third < 0) continue;
+
+			int uid = parseInt(line.substring(second + 1, third), -1);
+			if (uid < 0) continue;
+
+			String name = line.substring(0, first).intern();
+			byName.putIfAbsent(name, uid);
+			// the first entry wins, as with getpwuid
+			if (lookupStored(uid) == null) store(uid, name);
+		}
+	}
+
+	private static String lookupStored(int uid) {
+		return uid < dense.length ? dense[uid] : uid >= DENSE_LIMIT ? sparse.get(uid) : null;
+	}
+
+	private static void store(int uid, String name) {
+		if (uid >= DENSE_LIMIT) {
+			sparse.put(uid, name);
+			return;
+		}
+		if (uid >= dense.length) {
+			dense = Arrays.copyOf(dense, Math.min(DENSE_LIMIT, Math.max(uid + 1, dense.length * 2)));
+		}
+		dense[uid] = name;
+	}
+
+	/**
+	 * Resolves a user ID that is not in <code>/etc/passwd</code> through NSS.
+	 *
+	 * @return the user name, or the numeric ID as text if no source knows it
+	 */
+	private static String resolveExternal(int uid) {
+		String line = run("getent", "passwd", String.valueOf(uid));
+		if (line != null && line.indexOf(':') > 0) {
+			return line.substring(0, line.indexOf(':')).intern();
+		}
+
+		line = run("id", "-nu", String.valueOf(uid));
+		if (line != null && !line.isBlank()) {
+			return line.strip().intern();
+		}
+		return String.valueOf(uid).intern();
+	}
+
+	/**
+	 * Runs a command and returns the first line of its output.
+	 *
+	 * @return the line, or {@code null} if the command failed or printed nothing
+	 */
+	private static String run(String... command) {
+		try {
+			Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+				String line = reader.readLine();
+				return process.waitFor() == 0 ? line : null;
+			}
+		} catch (IOException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private static long lastModified() {
+		try {
+			return Files.getLastModifiedTime(PASSWD).toMillis();
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	private static int parseInt(String s, int fallback) {
+		if (s == null) return fallback;
+		try {
+			return Integer.parseInt(s.strip());
+		} catch (NumberFormatException e) {
+			return fallback;
+		}
+	}
+}
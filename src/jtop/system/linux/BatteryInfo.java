@@ -66,6 +66,22 @@ public class BatteryInfo implements IBatteryInfo {
         }
     }
 
+    /**
+     * Reads an integer value from a file inside the battery directory.
+     *
+     * @param filename the name of the file to read
+     * @return the parsed value, or -1 if unavailable
+     */
+    private long readBatteryLong(String filename) {
+        if (batteryPath == null) return -1;
+
+        ProcReader reader = ProcReader.get();
+        if (!reader.read(batteryPath.resolve(filename).toString()) || reader.atLineEnd()) {
+            return -1;
+        }
+        return reader.nextLong();
+    }
+
     /**
      * Gets the current battery charge percentage (0–100).
      *
@@ -73,14 +89,7 @@ public class BatteryInfo implements IBatteryInfo {
      */
     @Override
     public int getBatteryPercentage() {
-        String content = readBatteryFile("capacity");
-        if (content == null) return -1;
-
-        try {
-            return Integer.parseInt(content);
-        } catch (NumberFormatException e) {
-            return -1;
-        }
+        return (int) readBatteryLong("capacity");
     }
 
     /**
@@ -101,15 +110,9 @@ public class BatteryInfo implements IBatteryInfo {
      */
     @Override
     public double getVoltage() {
-        String content = readBatteryFile("voltage_now");
-        if (content == null) return -1;
-
-        try {
-            // value is usually in microvolts
-            return Double.parseDouble(content) / 1_000_000.0;
-        } catch (NumberFormatException e) {
-            return -1;
-        }
+        long value = readBatteryLong("voltage_now");
+        // value is usually in microvolts
+        return value < 0 ? -1 : value / 1_000_000.0;
     }
 
     /**
@@ -119,15 +122,9 @@ public class BatteryInfo implements IBatteryInfo {
      */
     @Override
     public double getEnergy() {
-        String content = readBatteryFile("energy_now");
-        if (content == null) return -1;
-
-        try {
-            // value is usually in microwatt-hours
-            return Double.parseDouble(content) / 1_000_000.0;
-        } catch (NumberFormatException e) {
-            return -1;
-        }
+        long value = readBatteryLong("energy_now");
+        // value is usually in microwatt-hours
+        return value < 0 ? -1 : value / 1_000_000.0;
     }
 
     /**
@@ -137,15 +134,9 @@ public class BatteryInfo implements IBatteryInfo {
      */
     @Override
     public double getPower() {
-        String content = readBatteryFile("power_now");
-        if (content == null) return -1;
-
-        try {
-            // value is usually in microwatts
-            return Double.parseDouble(content) / 1_000_000.0;
-        } catch (NumberFormatException e) {
-            return -1;
-        }
+        long value = readBatteryLong("power_now");
+        // value is usually in microwatts
+        return value < 0 ? -1 : value / 1_000_000.0;
     }
 
     /**
@@ -1,12 +1,13 @@
 package jtop.system.linux;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.List;
 import jtop.Isystem.ICpuInfo;
+import jtop.system.CpuTimes;
+import jtop.system.ProcessStat;
 
 /**
  * Provides CPU usage information and statistics for the system and individual processes.
@@ -14,7 +15,8 @@ import jtop.Isystem.ICpuInfo;
  * Reads data from the <code>/proc</code> filesystem on Linux:
  * </p>
  * <ul>
- *     <li><code>/proc/[pid]/stat</code> for per-process CPU usage</li>
+ *     <li><code>/proc/[pid]/stat</code> for per-process CPU usage, accounted as
+ *         interval deltas by {@link ProcessCpuAccounting}</li>
  *     <li><code>/proc/stat</code> for overall CPU usage</li>
  *     <li><code>/proc/loadavg</code> for system load average</li>
  * </ul>
@@ -24,31 +26,82 @@ public class CpuInfo implements ICpuInfo {
     /** Number of decimal places to round CPU percentage values. */
     private static final int DECIMALS = 3;
 
+    /** Per-process tick history; survives between refreshes since the backend is a singleton. */
+    private final ProcessCpuAccounting accounting = new ProcessCpuAccounting();
+
     /**
-     * Computes the CPU usage percentage of a specific process.
+     * Computes the CPU usage percentage of a specific process over the last sample interval.
+     * <p>
+     * Reads <code>/proc/[pid]/stat</code> only to identify the process instance;
+     * the value itself comes from the last {@link #sampleProcesses(List)} call.
      *
      * @param pid the process ID
      * @return CPU usage as a percentage, or -1 if unavailable
      */
     @Override
     public double getCpuPercent(long pid) {
-        try {
-            String stat = Files.readString(Paths.get("/proc/" + pid + "/stat"));
-            String[] parts = stat.split("\\s+");
+        ProcessStat stat = new ProcessCollector().read(pid);
+        return stat != null ? getCpuPercent(stat) : -1;
+    }
 
-            long utime = Long.parseLong(parts[13]);
-            long stime = Long.parseLong(parts[14]);
-            long totalTime = utime + stime;
+    /**
+     * Computes the CPU usage percentage of a process over the last sample interval.
+     * <p>
+     * The result is the number of ticks the process consumed since the previous
+     * refresh, relative to the capacity of all CPUs over the same interval. A
+     * process seen for the first time on the very first refresh reports 0.
+     *
+     * @param stat the process snapshot
+     * @return CPU usage as a percentage
+     */
+    @Override
+    public double getCpuPercent(ProcessStat stat) {
+        return round(accounting.getPercent(stat));
+    }
 
-            double uptimeSeconds = new Uptime().getSystemUptime('s');
+    /**
+     * Records the tick counts of all processes for interval accounting.
+     * <p>
+     * Also reads <code>/proc/uptime</code>, so that processes seen for the first
+     * time can be told apart from ones that started within the interval.
+     *
+     * @param stats all processes collected in this refresh
+     */
+    @Override
+    public void sampleProcesses(List<ProcessStat> stats) {
+        ProcReader reader = ProcReader.get();
+        double uptime = reader.read("/proc/uptime") ? reader.nextDouble() : -1;
+        accounting.sample(stats, uptime);
+    }
 
-            double percent = (100d * totalTime / uptimeSeconds) / Runtime.getRuntime().availableProcessors();
+    /**
+     * Returns the user-mode CPU percentage of a process over the last sample interval.
+     *
+     * @param stat the process snapshot
+     * @return user CPU usage as a percentage
+     */
+    @Override
+    public double getUserPercent(ProcessStat stat) {
+        return round(accounting.getUserPercent(stat));
+    }
 
-            double factor = Math.pow(10, DECIMALS);
-            return Math.round(percent * factor) / factor;
-        } catch (Exception e) {
-            return -1;
-        }
+    /**
+     * Returns the kernel-mode CPU percentage of a process over the last sample interval.
+     *
+     * @param stat the process snapshot
+     * @return system CPU usage as a percentage
+     */
+    @Override
+    public double getSystemPercent(ProcessStat stat) {
+        return round(accounting.getSystemPercent(stat));
+    }
+
+    /**
+     * Rounds a percentage to {@link #DECIMALS} decimal places.
+     */
+    private static double round(double percent) {
+        double factor = Math.pow(10, DECIMALS);
+        return Math.round(percent * factor) / factor;
     }
 
     /**
@@ -67,6 +120,9 @@ public class CpuInfo implements ICpuInfo {
 
     /**
      * Computes the overall CPU usage percentage over a sample period.
+     * <p>
+     * This blocks for {@code sampleMs}; periodic callers should keep the
+     * previous {@link #readCpuTimes()} snapshot instead.
      *
      * @param sampleMs the sample duration in milliseconds
      * @return the CPU usage as a percentage over the sample period, or -1 if unavailable
@@ -74,38 +130,43 @@ public class CpuInfo implements ICpuInfo {
     @Override
     public double getCpuUsage(long sampleMs) {
         try {
-            long[] first = readCpuStat();
+            CpuTimes first = readCpuTimes();
             Thread.sleep(sampleMs);
-            long[] second = readCpuStat();
-
-            long idle1 = first[3];
-            long idle2 = second[3];
-            long total1 = Arrays.stream(first).sum();
-            long total2 = Arrays.stream(second).sum();
-
-            long totalDelta = total2 - total1;
-            long idleDelta = idle2 - idle1;
-            return 100.0 * (totalDelta - idleDelta) / totalDelta;
+            CpuTimes second = readCpuTimes();
+            return second.utilization(first);
         } catch (Exception e) {
             return -1;
         }
     }
 
     /**
-     * Reads the system-wide CPU statistics from <code>/proc/stat</code>.
+     * Reads the system-wide and per-core CPU statistics from <code>/proc/stat</code>.
+     * <p>
+     * The aggregate <code>cpu</code> line and every <code>cpuN</code> line are
+     * parsed in the same pass into one flat primitive array.
      *
-     * @return an array of CPU time values (user, nice, system, idle, etc.), or null if unavailable
+     * @return the CPU time counters (user, nice, system, idle, etc.), or null if unavailable
      */
-    private long[] readCpuStat() {
-        try (BufferedReader br = Files.newBufferedReader(Path.of("/proc/stat"))) {
-            String[] parts = br.readLine().trim().split("\\s+");
-            long[] vals = new long[parts.length - 1];
-            for (int i = 1; i < parts.length; i++) {
-                vals[i - 1] = Long.parseLong(parts[i]);
+    @Override
+    public CpuTimes readCpuTimes() {
+        ProcReader reader = ProcReader.get();
+        if (!reader.read("/proc/stat")) return null;
+
+        long[] vals = new long[(Runtime.getRuntime().availableProcessors() + 1) * CpuTimes.FIELDS];
+        int rows = 0;
+        while (reader.startsWith("cpu")) {
+            if ((rows + 1) * CpuTimes.FIELDS > vals.length) {
+                vals = Arrays.copyOf(vals, vals.length * 2);
             }
-            return vals;
-        } catch (IOException e) {
-            return null;
+
+            reader.skipToken();
+            int base = rows * CpuTimes.FIELDS;
+            for (int i = 0; i < CpuTimes.FIELDS && !reader.atLineEnd(); i++) {
+                vals[base + i] = reader.nextLong();
+            }
+            rows++;
+            if (!reader.nextLine()) break;
         }
+        return rows == 0 ? null : new CpuTimes(vals, rows - 1);
     }
 }
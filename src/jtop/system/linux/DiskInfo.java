@@ -1,13 +1,16 @@
 package jtop.system.linux;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import jtop.Isystem.IDiskInfo;
+import jtop.system.DiskStats;
 
 /**
  * Provides information about disk usage and I/O statistics for mounted devices.
@@ -17,9 +20,24 @@ import jtop.Isystem.IDiskInfo;
  * monitor disk I/O activity or calculate total/used storage if combined
  * with filesystem information.
  * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Parsed in place by {@link ProcReader}</li>
+ *	 <li>Whether a device is a whole disk is looked up in <code>/sys/block</code>
+ *		 once per device name, not on every read</li>
+ * </ul>
+ * </p>
  */
 public class DiskInfo implements IDiskInfo {
 
+    /** Directory listing the whole block devices; partitions only appear below them. */
+    private static final String SYS_BLOCK = "/sys/block/";
+
+    /** Whether each device name seen so far is a whole disk. */
+    private final Map<String, Boolean> wholeDisk = new HashMap<>();
+
     /**
      * Retrieves disk I/O statistics for all block devices.
      * <p>
@@ -38,17 +56,76 @@ public class DiskInfo implements IDiskInfo {
     @Override
     public Map<String, long[]> getDiskStats() throws IOException {
         Map<String, long[]> map = new LinkedHashMap<>();
-        try (BufferedReader br = Files.newBufferedReader(Path.of("/proc/diskstats"))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.trim().split("\\s+");
-                if (parts.length < 14) continue; // Skip incomplete lines
-                String device = parts[2];
-                long reads = Long.parseLong(parts[3]);
-                long writes = Long.parseLong(parts[7]);
+        ProcReader reader = ProcReader.get();
+        if (!reader.read("/proc/diskstats")) {
+            throw new IOException("Cannot read /proc/diskstats");
+        }
+
+        while (reader.hasMore()) {
+            reader.skipTokens(2);                   // major, minor
+            String device = reader.nextToken();
+            long reads = reader.nextLong();
+            reader.skipTokens(3);
+            long writes = reader.nextLong();
+            reader.skipTokens(5);
+            if (!device.isEmpty() && !reader.atLineEnd()) { // skip incomplete lines
                 map.put(device, new long[]{reads, writes});
             }
+            reader.nextLine();
         }
         return map;
     }
-}
\ No newline at end of file
+
+    /**
+     * Reads the I/O counters of every whole disk from <code>/proc/diskstats</code>.
+     *
+     * @return the counters, or {@code null} if the file cannot be read
+     */
+    @Override
+    public synchronized DiskStats readDiskStats() {
+        ProcReader reader = ProcReader.get();
+        if (!reader.read("/proc/diskstats")) return null;
+        long nanos = System.nanoTime();
+
+        List<String> devices = new ArrayList<>();
+        long[] counters = new long[16 * DiskStats.FIELDS];
+        while (reader.hasMore()) {
+            reader.skipTokens(2);                   // major, minor
+            String device = reader.nextToken();
+            if (!device.isEmpty() && isWholeDisk(device)) {
+                int base = devices.size() * DiskStats.FIELDS;
+                if (base + DiskStats.FIELDS > counters.length) {
+                    counters = Arrays.copyOf(counters, counters.length * 2);
+                }
+                counters[base + DiskStats.READS] = reader.nextLong();
+                reader.skipToken();                 // reads merged
+                counters[base + DiskStats.READ_SECTORS] = reader.nextLong();
+                counters[base + DiskStats.READ_MS] = reader.nextLong();
+                counters[base + DiskStats.WRITES] = reader.nextLong();
+                reader.skipToken();                 // writes merged
+                counters[base + DiskStats.WRITE_SECTORS] = reader.nextLong();
+                counters[base + DiskStats.WRITE_MS] = reader.nextLong();
+                reader.skipToken();                 // I/Os in progress
+                counters[base + DiskStats.IO_MS] = reader.nextLong();
+                devices.add(device);
+            }
+            reader.nextLine();
+        }
+        return new DiskStats(devices.toArray(new String[0]), counters, nanos);
+    }
+
+    /**
+     * Returns whether a device is a whole disk rather than a partition.
+     * <p>
+     * Names containing '/' appear in <code>/sys/block</code> with '!' instead.
+     * </p>
+     */
+    private boolean isWholeDisk(String device) {
+        Boolean whole = wholeDisk.get(device);
+        if (whole == null) {
+            whole = new File(SYS_BLOCK + device.replace('/', '!')).exists();
+            wholeDisk.put(device, whole);
+        }
+        return whole;
+    }
+}
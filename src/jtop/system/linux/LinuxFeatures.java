@@ -27,7 +27,8 @@ public final class LinuxFeatures {
         Feature.TEMPERATURE,
         Feature.BATTERY,
         Feature.UPTIME,
-        Feature.PROCESS
+        Feature.PROCESS,
+        Feature.PROCESS_LIST
     );
 
     /** Private constructor to prevent instantiation of this utility class. */
@@ -1,10 +1,9 @@
 package jtop.system.linux;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+
 import jtop.Isystem.IMemoryInfo;
+import jtop.system.ProcessStat;
 
 /**
  * Provides methods to gather memory usage statistics.
@@ -21,8 +20,9 @@ import jtop.Isystem.IMemoryInfo;
  * Performance notes:
  * <ul>
  *	 <li>/proc/meminfo is cached for a short time window</li>
- *	 <li>No regex usage</li>
+ *	 <li>Parsed in place by {@link ProcReader}, no regex usage</li>
  *	 <li>No temporary Maps or Lists</li>
+ *	 <li>The cache is guarded by the instance lock, so one shared instance serves all threads</li>
  * </ul>
  * </p>
  */
@@ -34,15 +34,15 @@ public class MemoryInfo implements IMemoryInfo {
 	/** Cache validity in milliseconds. */
 	private static final long MEMINFO_CACHE_MS = 500;
 
-	private static long lastRead;
+	private long lastRead;
 
-	private static long memTotalKb;
-	private static long memAvailableKb;
-	private static long memFreeKb;
-	private static long buffersKb;
-	private static long cachedKb;
-	private static long sReclaimableKb;
-	private static long shmemKb;
+	private long memTotalKb;
+	private long memAvailableKb;
+	private long memFreeKb;
+	private long buffersKb;
+	private long cachedKb;
+	private long sReclaimableKb;
+	private long shmemKb;
 
 	/**
 	 * Returns the memory usage percentage of a process.
@@ -53,23 +53,40 @@ public class MemoryInfo implements IMemoryInfo {
 	 */
 	@Override
 	public double getMemoryPercent(long pid) throws IOException {
-		readMemInfoCached();
+		long totalKb = totalKb();
 
-		Path statmPath = Path.of("/proc", String.valueOf(pid), "statm");
-		if (!Files.exists(statmPath)) {
+		ProcReader reader = ProcReader.get();
+		if (!reader.readProcess(pid, "statm")) {
 			throw new IOException("Process with PID " + pid + " does not exist");
 		}
 
-		String statm = Files.readString(statmPath).trim();
-		int space = statm.indexOf(' ');
-		if (space < 0) {
+		reader.skipToken();
+		if (reader.atLineEnd()) {
 			throw new IOException("Unexpected format in /proc/" + pid + "/statm");
 		}
 
-		long rssPages = Long.parseLong(statm.substring(space + 1).trim().split(" ")[0]);
+		long rssPages = reader.nextLong();
 		long processKb = (rssPages * PAGE_SIZE) / 1024;
 
-		double percent = (processKb / (double) memTotalKb) * 100.0;
+		double percent = (processKb / (double) totalKb) * 100.0;
+		return round(percent, 3);
+	}
+
+	/**
+	 * Returns the memory usage percentage of a process from an already collected snapshot.
+	 * <p>
+	 * Uses the resident set size parsed from <code>/proc/[pid]/statm</code> during collection,
+	 * so no per-process file is read here.
+	 * </p>
+	 *
+	 * @param stat the process snapshot
+	 * @return memory usage percentage of the process
+	 * @throws IOException if /proc/meminfo cannot be read
+	 */
+	@Override
+	public double getMemoryPercent(ProcessStat stat) throws IOException {
+		long processKb = (stat.rssPages() * PAGE_SIZE) / 1024;
+		double percent = (processKb / (double) totalKb()) * 100.0;
 		return round(percent, 3);
 	}
 
@@ -80,7 +97,7 @@ public class MemoryInfo implements IMemoryInfo {
 	 * @throws IOException if /proc/meminfo cannot be read
 	 */
 	@Override
-	public double getMemoryUsage() throws IOException {
+	public synchronized double getMemoryUsage() throws IOException {
 		readMemInfoCached();
 
 		long free = memFreeKb
@@ -100,7 +117,7 @@ public class MemoryInfo implements IMemoryInfo {
 	 * @throws IOException if /proc/meminfo cannot be read
 	 */
 	@Override
-	public long getTotalMemoryBytes() throws IOException {
+	public synchronized long getTotalMemoryBytes() throws IOException {
 		readMemInfoCached();
 		return memTotalKb * 1024;
 	}
@@ -112,58 +129,61 @@ public class MemoryInfo implements IMemoryInfo {
 	 * @throws IOException if /proc/meminfo cannot be read
 	 */
 	@Override
-	public long getAvailableMemoryBytes() throws IOException {
+	public synchronized long getAvailableMemoryBytes() throws IOException {
 		readMemInfoCached();
 		return (memTotalKb - memAvailableKb) * 1024;
 	}
 
+	/**
+	 * Returns the cached total memory in kB, refreshing the cache if needed.
+	 */
+	private synchronized long totalKb() throws IOException {
+		readMemInfoCached();
+		return memTotalKb;
+	}
+
 	/**
 	 * Reads /proc/meminfo and caches values for a short time window.
+	 * Callers must hold the instance lock.
 	 */
-	private static void readMemInfoCached() throws IOException {
+	private void readMemInfoCached() throws IOException {
 		long now = System.currentTimeMillis();
 		if (now - lastRead < MEMINFO_CACHE_MS) {
 			return;
 		}
 
-		try (BufferedReader br = Files.newBufferedReader(Path.of("/proc/meminfo"))) {
-			String line;
-			while ((line = br.readLine()) != null) {
-				if (line.startsWith("MemTotal:")) {
-					memTotalKb = parseKb(line);
-				} else if (line.startsWith("MemAvailable:")) {
-					memAvailableKb = parseKb(line);
-				} else if (line.startsWith("MemFree:")) {
-					memFreeKb = parseKb(line);
-				} else if (line.startsWith("Buffers:")) {
-					buffersKb = parseKb(line);
-				} else if (line.startsWith("Cached:")) {
-					cachedKb = parseKb(line);
-				} else if (line.startsWith("SReclaimable:")) {
-					sReclaimableKb = parseKb(line);
-				} else if (line.startsWith("Shmem:")) {
-					shmemKb = parseKb(line);
-				}
-			}
+		ProcReader reader = ProcReader.get();
+		if (!reader.read("/proc/meminfo")) {
+			throw new IOException("Cannot read /proc/meminfo");
 		}
 
+		do {
+			if (reader.startsWith("MemTotal:")) {
+				memTotalKb = parseKb(reader);
+			} else if (reader.startsWith("MemAvailable:")) {
+				memAvailableKb = parseKb(reader);
+			} else if (reader.startsWith("MemFree:")) {
+				memFreeKb = parseKb(reader);
+			} else if (reader.startsWith("Buffers:")) {
+				buffersKb = parseKb(reader);
+			} else if (reader.startsWith("Cached:")) {
+				cachedKb = parseKb(reader);
+			} else if (reader.startsWith("SReclaimable:")) {
+				sReclaimableKb = parseKb(reader);
+			} else if (reader.startsWith("Shmem:")) {
+				shmemKb = parseKb(reader);
+			}
+		} while (reader.nextLine());
+
 		lastRead = now;
 	}
 
 	/**
-	 * Parses a line of /proc/meminfo and returns the value in kB.
+	 * Parses the value of the /proc/meminfo line at the cursor in kB.
 	 */
-	private static long parseKb(String line) {
-		int i = line.indexOf(':') + 1;
-		while (line.charAt(i) == ' ') {
-			i++;
-		}
-
-		long val = 0;
-		while (i < line.length() && Character.isDigit(line.charAt(i))) {
-			val = val * 10 + (line.charAt(i++) - '0');
-		}
-		return val;
+	private static long parseKb(ProcReader reader) {
+		reader.skipToken();
+		return reader.nextLong();
 	}
 
 	/**
@@ -1,13 +1,16 @@
 package jtop.system.linux;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import jtop.Isystem.INetworkInfo;
+import jtop.system.NetworkStats;
 
 /**
  * Provides methods to collect network usage statistics.
@@ -15,6 +18,11 @@ import jtop.Isystem.INetworkInfo;
  * Reads from the Linux file <code>/proc/net/dev</code> to retrieve
  * the number of bytes received (RX) and transmitted (TX) per network interface.
  * </p>
+ * <p>
+ * <code>/proc/[pid]/net/dev</code> gives the same counters as seen from the
+ * network namespace of a process, and the <code>/proc/[pid]/ns/net</code> link
+ * (e.g. <code>net:[4026531840]</code>) names that namespace by inode.
+ * </p>
  */
 public class NetworkInfo implements INetworkInfo {
 
@@ -31,21 +39,120 @@ public class NetworkInfo implements INetworkInfo {
 	 */
 	@Override
 	public Map<String, long[]> getNetworkUsage() throws IOException {
-		Map<String, long[]> map = new LinkedHashMap<>();
+		ProcReader reader = ProcReader.get();
+		if (!reader.read("/proc/net/dev")) {
+			throw new IOException("Cannot read /proc/net/dev");
+		}
+		return parse(reader);
+	}
+
+	/**
+	 * Reads the byte, packet, error and drop counters of all interfaces from <code>/proc/net/dev</code>.
+	 *
+	 * @return the counters, or {@code null} if the file cannot be read
+	 */
+	@Override
+	public NetworkStats readNetworkStats() {
+		ProcReader reader = ProcReader.get();
+		if (!reader.read("/proc/net/dev")) return null;
+		long nanos = System.nanoTime();
+
+		// Skip header lines
+		reader.nextLine();
+		reader.nextLine();
+
+		List<String> interfaces = new ArrayList<>();
+		long[] counters = new long[8 * NetworkStats.FIELDS];
+		while (reader.hasMore()) {
+			int colon = reader.indexOnLine(':');
+			if (colon >= 0) {
+				int base = interfaces.size() * NetworkStats.FIELDS;
+				if (base + NetworkStats.FIELDS > counters.length) {
+					counters = Arrays.copyOf(counters, counters.length * 2);
+				}
+				interfaces.add(reader.substring(reader.position(), colon).trim());
+				reader.seek(colon + 1);
+				counters[base + NetworkStats.RX_BYTES] = reader.nextLong();
+				counters[base + NetworkStats.RX_PACKETS] = reader.nextLong();
+				counters[base + NetworkStats.RX_ERRORS] = reader.nextLong();
+				counters[base + NetworkStats.RX_DROPS] = reader.nextLong();
+				reader.skipTokens(4);				// fifo, frame, compressed, multicast
+				counters[base + NetworkStats.TX_BYTES] = reader.nextLong();
+				counters[base + NetworkStats.TX_PACKETS] = reader.nextLong();
+				counters[base + NetworkStats.TX_ERRORS] = reader.nextLong();
+				counters[base + NetworkStats.TX_DROPS] = reader.nextLong();
+			}
+			reader.nextLine();
+		}
+		return new NetworkStats(interfaces.toArray(new String[0]), counters, nanos);
+	}
+
+	/**
+	 * Retrieves the network usage of all interfaces in the namespace of a process.
+	 *
+	 * @param pid the process ID
+	 * @return the usage per interface, as in {@link #getNetworkUsage()}
+	 * @throws IOException if /proc/[pid]/net/dev cannot be read
+	 */
+	@Override
+	public Map<String, long[]> getNetworkUsage(long pid) throws IOException {
+		ProcReader reader = ProcReader.get();
+		if (!reader.readProcess(pid, "net/dev")) {
+			throw new IOException("Cannot read /proc/" + pid + "/net/dev");
+		}
+		return parse(reader);
+	}
+
+	/**
+	 * Returns the inode of the network namespace of a process.
+	 * <p>
+	 * Reading the link requires the same permission as reading the process's
+	 * memory maps, so it fails for processes of other users unless running as root.
+	 * </p>
+	 *
+	 * @param pid the process ID
+	 * @return the namespace inode, or -1 if the link cannot be read
+	 */
+	@Override
+	public long getNamespace(long pid) {
+		String link;
+		try {
+			link = Files.readSymbolicLink(Path.of("/proc", Long.toString(pid), "ns", "net")).toString();
+		} catch (IOException | UnsupportedOperationException e) {
+			return -1;
+		}
 
-		try (BufferedReader br = Files.newBufferedReader(Path.of("/proc/net/dev"))) {
-			// Skip header lines
-			br.lines().skip(2).forEach(line -> {
-				String[] parts = line.split(":");
-				if (parts.length < 2) return;
+		// net:[4026531840]
+		int open = link.indexOf('[');
+		int close = link.indexOf(']', open + 1);
+		if (open < 0 || close < 0) return -1;
+		try {
+			return Long.parseLong(link, open + 1, close, 10);
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
 
-				String iface = parts[0].trim();
-				String[] nums = parts[1].trim().split("\\s+");
-				long rx = Long.parseLong(nums[0]);
-				long tx = Long.parseLong(nums[8]);
+	/**
+	 * Parses the interface table loaded into {@code reader}.
+	 */
+	private static Map<String, long[]> parse(ProcReader reader) {
+		Map<String, long[]> map = new LinkedHashMap<>();
 
+		// Skip header lines
+		reader.nextLine();
+		reader.nextLine();
+		while (reader.hasMore()) {
+			int colon = reader.indexOnLine(':');
+			if (colon >= 0) {
+				String iface = reader.substring(reader.position(), colon).trim();
+				reader.seek(colon + 1);
+				long rx = reader.nextLong();
+				reader.skipTokens(7);
+				long tx = reader.nextLong();
 				map.put(iface, new long[]{rx, tx});
-			});
+			}
+			reader.nextLine();
 		}
 
 		return map;
@@ -1,22 +1,35 @@
 package jtop.system.linux;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
 import jtop.Isystem.IPathInfo;
+import jtop.system.ProcessStat;
 
 /**
  * Provides utilities to retrieve process path information.
  * <p>
- * Uses {@link ProcessHandle} to fetch details about a running process,
- * including its command (full path) and executable name.
+ * Reads the <code>/proc/[pid]/exe</code> link directly; the kernel's command
+ * name (the <code>comm</code> field of <code>/proc/[pid]/stat</code>, the same
+ * value as <code>/proc/[pid]/comm</code>) serves as name when the link cannot
+ * be read, e.g. for kernel threads or processes of other users.
+ * </p>
+ * <p>
+ * Results are cached across refreshes, keyed by (pid, start time) so a reused
+ * PID never sees the path of the exited process. Each entry remembers the
+ * command name it was resolved under; an {@code exec} changes that name, and
+ * only then is the entry resolved again.
  * </p>
  *
  * <p>
  * Performance notes:
  * <ul>
- *	 <li>Results are cached per PID</li>
- *	 <li>ProcessHandle is queried only once per PID</li>
+ *	 <li>One readlink per process instance and exec, no ProcessHandle</li>
+ *	 <li>Least recently used entries are evicted beyond {@link #MAX_ENTRIES},
+ *		 so exited processes do not accumulate</li>
+ *	 <li>The cache is guarded by the instance lock, so one shared instance serves all threads</li>
  * </ul>
  * </p>
  */
@@ -24,11 +37,21 @@ public class PathInfo implements IPathInfo {
 
 	private static final String UNKNOWN = "Unknown";
 
-	/** Cache full command path per PID */
-	private final Map<Long, String> pathCache = new HashMap<>();
+	/** Upper bound of cached process instances. */
+	private static final int MAX_ENTRIES = 16384;
+
+	/** Resolved path and name of one process instance. */
+	private record Entry(String comm, String path, String name) {}
 
-	/** Cache executable name per PID */
-	private final Map<Long, String> nameCache = new HashMap<>();
+	/** Entries per (pid, start time) key, in access order. */
+	private final Map<Long, Entry> cache = new LinkedHashMap<>(256, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
 
 	/**
 	 * Returns the name of the executable for the given process ID.
@@ -38,21 +61,8 @@ public class PathInfo implements IPathInfo {
 	 */
 	@Override
 	public String getName(long pid) {
-		String cached = nameCache.get(pid);
-		if (cached != null) {
-			return cached;
-		}
-
-		String path = getPath(pid);
-		if (UNKNOWN.equals(path)) {
-			return UNKNOWN;
-		}
-
-		int idx = path.lastIndexOf('/');
-		String name = idx >= 0 ? path.substring(idx + 1) : path;
-
-		nameCache.put(pid, name);
-		return name;
+		ProcessStat stat = new ProcessCollector().read(pid);
+		return stat != null ? getName(stat) : UNKNOWN;
 	}
 
 	/**
@@ -63,28 +73,76 @@ public class PathInfo implements IPathInfo {
 	 */
 	@Override
 	public String getPath(long pid) {
-		String cached = pathCache.get(pid);
-		if (cached != null) {
-			return cached;
-		}
-
-		Optional<ProcessHandle> ph = ProcessHandle.of(pid);
-		if (ph.isEmpty()) {
-			return UNKNOWN;
-		}
+		ProcessStat stat = new ProcessCollector().read(pid);
+		return stat != null ? getPath(stat) : UNKNOWN;
+	}
 
-		String path = ph.get().info().command().orElse(UNKNOWN);
-		pathCache.put(pid, path);
+	/**
+	 * Returns the executable name for an already collected process snapshot.
+	 * <p>
+	 * Processes without a readable executable link (kernel threads, or processes
+	 * of other users) fall back to the command name from <code>/proc/[pid]/stat</code>.
+	 * </p>
+	 *
+	 * @param stat the process snapshot
+	 * @return the executable name
+	 */
+	@Override
+	public String getName(ProcessStat stat) {
+		return entry(stat).name();
+	}
 
-		return path;
+	/**
+	 * Returns the full executable path for an already collected process snapshot.
+	 *
+	 * @param stat the process snapshot
+	 * @return the full executable path, or "Unknown" if the link cannot be read
+	 */
+	@Override
+	public String getPath(ProcessStat stat) {
+		return entry(stat).path();
 	}
 
 	/**
 	 * Clears cached entries.
-	 * Should be called periodically to remove dead PIDs.
+	 * <p>
+	 * Not needed for correctness: entries are keyed by process instance and
+	 * bounded in number.
+	 * </p>
 	 */
-	public void clearCache() {
-		pathCache.clear();
-		nameCache.clear();
+	public synchronized void clearCache() {
+		cache.clear();
+	}
+
+	/**
+	 * Returns the cached entry of a process instance, resolving it on first use
+	 * and after the process executed a different program.
+	 */
+	private synchronized Entry entry(ProcessStat stat) {
+		Long key = stat.key();
+		Entry entry = cache.get(key);
+		if (entry != null && entry.comm().equals(stat.name())) {
+			return entry;
+		}
+
+		entry = resolve(stat);
+		cache.put(key, entry);
+		return entry;
+	}
+
+	/**
+	 * Reads the executable link of a process and derives its name.
+	 */
+	private static Entry resolve(ProcessStat stat) {
+		String path;
+		try {
+			path = Files.readSymbolicLink(Path.of("/proc", Long.toString(stat.pid()), "exe")).toString();
+		} catch (IOException | UnsupportedOperationException e) {
+			return new Entry(stat.name(), UNKNOWN, stat.name());
+		}
+
+		int idx = path.lastIndexOf('/');
+		String name = idx >= 0 ? path.substring(idx + 1) : path;
+		return new Entry(stat.name(), path, name);
 	}
 }
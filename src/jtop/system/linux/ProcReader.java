@@ -0,0 +1,314 @@
+package jtop.system.linux;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Allocation-free reader and tokenizer for ASCII files under <code>/proc</code> and <code>/sys</code>.
+ * <p>
+ * A file is read in full into a reusable byte buffer; fields and numbers are
+ * then parsed in place by moving a cursor over the bytes. Nothing is decoded
+ * into {@link String}s unless a caller explicitly asks for one with
+ * {@link #nextToken()} or {@link #substring(int, int)}.
+ * </p>
+ * <p>
+ * Each thread gets its own instance through {@link #get()}, so backends can
+ * share one reader per thread without locking. An instance must not be used
+ * for two files at the same time; reading a new file discards the previous one.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>No regex usage, no String.split, no boxed numbers</li>
+ *	 <li>The buffer only grows, so steady-state reads allocate nothing besides the file handle</li>
+ *	 <li>Parsing never throws; malformed input yields 0 or -1</li>
+ * </ul>
+ * </p>
+ */
+public final class ProcReader {
+
+	private static final ThreadLocal<ProcReader> LOCAL = ThreadLocal.withInitial(ProcReader::new);
+
+	private byte[] buf = new byte[4096];
+	private int length;
+	private int pos;
+
+	/** Reused to build paths such as /proc/[pid]/stat without intermediate strings. */
+	private final StringBuilder path = new StringBuilder(64);
+
+	private ProcReader() {}
+
+	/**
+	 * Returns the reader of the calling thread.
+	 *
+	 * @return the thread-local reader
+	 */
+	public static ProcReader get() {
+		return LOCAL.get();
+	}
+
+	/**
+	 * Reads a file completely into the buffer and resets the cursor.
+	 *
+	 * @param file the absolute file path
+	 * @return {@code true} if the file was read, {@code false} if it does not exist or is unreadable
+	 */
+	public boolean read(String file) {
+		length = 0;
+		pos = 0;
+		try (FileInputStream in = new FileInputStream(file)) {
+			int n;
+			while ((n = in.read(buf, length, buf.length - length)) > 0) {
+				length += n;
+				if (length == buf.length) {
+					buf = Arrays.copyOf(buf, buf.length * 2);
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			length = 0;
+			return false;
+		}
+	}
+
+	/**
+	 * Reads <code>/proc/[pid]/[name]</code>.
+	 *
+	 * @param pid the process ID
+	 * @param name the file name inside the process directory, e.g. "stat"
+	 * @return {@code true} if the file was read
+	 */
+	public boolean readProcess(long pid, String name) {
+		path.setLength(0);
+		path.append("/proc/").append(pid).append('/').append(name);
+		return read(path.toString());
+	}
+
+	/**
+	 * Returns the number of bytes read from the current file.
+	 *
+	 * @return the file length
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the cursor position.
+	 *
+	 * @return the offset of the next byte to parse
+	 */
+	public int position() {
+		return pos;
+	}
+
+	/**
+	 * Moves the cursor to an absolute offset.
+	 *
+	 * @param offset the new position, clamped to the file bounds
+	 */
+	public void seek(int offset) {
+		pos = Math.max(0, Math.min(length, offset));
+	}
+
+	/**
+	 * Returns whether unparsed bytes remain.
+	 *
+	 * @return {@code true} if the cursor is before the end of the file
+	 */
+	public boolean hasMore() {
+		return pos < length;
+	}
+
+	/**
+	 * Returns whether the cursor is at the end of a line or of the file.
+	 *
+	 * @return {@code true} if no more fields follow on the current line
+	 */
+	public boolean atLineEnd() {
+		skipBlanks();
+		return pos >= length || buf[pos] == '\n';
+	}
+
+	/**
+	 * Moves the cursor to the start of the next line.
+	 *
+	 * @return {@code true} if another line follows
+	 */
+	public boolean nextLine() {
+		while (pos < length && buf[pos] != '\n') pos++;
+		if (pos < length) pos++;
+		return pos < length;
+	}
+
+	/**
+	 * Returns whether the bytes at the cursor start with the given ASCII text.
+	 *
+	 * @param prefix the text to match
+	 * @return {@code true} on a match; the cursor does not move
+	 */
+	public boolean startsWith(String prefix) {
+		int n = prefix.length();
+		if (pos + n > length) return false;
+		for (int i = 0; i < n; i++) {
+			if (buf[pos + i] != prefix.charAt(i)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the offset of the last occurrence of a byte in the file.
+	 *
+	 * @param b the byte to find
+	 * @return the offset, or -1 if not found
+	 */
+	public int lastIndexOf(char b) {
+		for (int i = length - 1; i >= 0; i--) {
+			if (buf[i] == b) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the offset of the next occurrence of a byte on the current line.
+	 *
+	 * @param b the byte to find
+	 * @return the offset, or -1 if not found before the end of the line
+	 */
+	public int indexOnLine(char b) {
+		for (int i = pos; i < length && buf[i] != '\n'; i++) {
+			if (buf[i] == b) return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Skips the next whitespace-separated field.
+	 */
+	public void skipToken() {
+		skipBlanks();
+		while (pos < length && !isSpace(buf[pos])) pos++;
+	}
+
+	/**
+	 * Skips several whitespace-separated fields.
+	 *
+	 * @param count the number of fields to skip
+	 */
+	public void skipTokens(int count) {
+		for (int i = 0; i < count; i++) skipToken();
+	}
+
+	/**
+	 * Parses the next field as a signed decimal integer.
+	 * <p>
+	 * Parsing stops at the first non-digit, so suffixes such as ":" or " kB" are ignored.
+	 * </p>
+	 *
+	 * @return the value, or 0 if the field is not numeric
+	 */
+	public long nextLong() {
+		skipBlanks();
+		boolean negative = pos < length && buf[pos] == '-';
+		if (negative) pos++;
+
+		long value = 0;
+		while (pos < length) {
+			int d = buf[pos] - '0';
+			if (d < 0 || d > 9) break;
+			value = value * 10 + d;
+			pos++;
+		}
+		// consume any remainder of the field
+		while (pos < length && !isSpace(buf[pos])) pos++;
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses the next field as a signed decimal integer.
+	 *
+	 * @return the value, or 0 if the field is not numeric
+	 */
+	public int nextInt() {
+		return (int) nextLong();
+	}
+
+	/**
+	 * Parses the next field as a non-negative decimal fraction such as "1234.56".
+	 *
+	 * @return the value, or 0 if the field is not numeric
+	 */
+	public double nextDouble() {
+		skipBlanks();
+		double value = 0;
+		while (pos < length && buf[pos] >= '0' && buf[pos] <= '9') {
+			value = value * 10 + (buf[pos++] - '0');
+		}
+		if (pos < length && buf[pos] == '.') {
+			pos++;
+			double scale = 0.1;
+			while (pos < length && buf[pos] >= '0' && buf[pos] <= '9') {
+				value += (buf[pos++] - '0') * scale;
+				scale /= 10;
+			}
+		}
+		while (pos < length && !isSpace(buf[pos])) pos++;
+		return value;
+	}
+
+	/**
+	 * Returns the first byte of the next field as a character.
+	 *
+	 * @return the character, or '?' at the end of the file
+	 */
+	public char nextChar() {
+		skipBlanks();
+		if (pos >= length) return '?';
+		char c = (char) buf[pos];
+		while (pos < length && !isSpace(buf[pos])) pos++;
+		return c;
+	}
+
+	/**
+	 * Decodes the next whitespace-separated field.
+	 * <p>
+	 * This allocates a {@link String}; reserve it for identifiers such as device names.
+	 * </p>
+	 *
+	 * @return the field, or an empty string at the end of the line
+	 */
+	public String nextToken() {
+		skipBlanks();
+		int start = pos;
+		while (pos < length && !isSpace(buf[pos])) pos++;
+		return substring(start, pos);
+	}
+
+	/**
+	 * Decodes a range of the file.
+	 * <p>
+	 * Decoded as UTF-8, since command names and labels are not guaranteed to be ASCII.
+	 * </p>
+	 *
+	 * @param start the first offset, inclusive
+	 * @param end the last offset, exclusive
+	 * @return the decoded text
+	 */
+	public String substring(int start, int end) {
+		return new String(buf, start, Math.max(0, end - start), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Advances the cursor past spaces and tabs, but not past line breaks.
+	 */
+	private void skipBlanks() {
+		while (pos < length && (buf[pos] == ' ' || buf[pos] == '\t')) pos++;
+	}
+
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\t' || b == '\n';
+	}
+}
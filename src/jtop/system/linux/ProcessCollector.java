@@ -0,0 +1,321 @@
+package jtop.system.linux;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import jtop.Isystem.IProcessCollector;
+import jtop.system.ProcessStat;
+
+/**
+ * Collects a snapshot of all processes directly from <code>/proc</code>.
+ * <p>
+ * Numeric entries of <code>/proc</code> are enumerated without going through
+ * {@link ProcessHandle}, and for each PID the following files are read once:
+ * </p>
+ * <ul>
+ *	 <li><code>/proc/[pid]/stat</code> for name, state, CPU ticks and start time</li>
+ *	 <li><code>/proc/[pid]/statm</code> for the resident set size</li>
+ *	 <li><code>/proc/[pid]/status</code> for the owning user ID</li>
+ *	 <li><code>/proc/[pid]/io</code> for storage and syscall counters, only if permitted</li>
+ * </ul>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>One open per file per PID and refresh</li>
+ *	 <li>Parsed in place by {@link ProcReader}, no regex or String.split</li>
+ *	 <li>Processes that vanish mid-scan are skipped without throwing</li>
+ *	 <li>Large PID lists are split into ranges and read on a bounded
+ *		 {@link ForkJoinPool}; every worker parses with its own {@link ProcReader}</li>
+ * </ul>
+ * </p>
+ */
+public class ProcessCollector implements IProcessCollector {
+
+	/** Root of the proc filesystem. */
+	private static final File PROC = new File("/proc");
+
+	/** Flag above the 32 uid bits returned by {@link #readOwner}. */
+	private static final long IO_READABLE = 1L << 32;
+
+	/** Capability bit that lets a process read the I/O counters of every other process. */
+	private static final int CAP_SYS_PTRACE = 19;
+
+	private static final long SELF = readSelf();
+
+	/** Effective user ID of jtop itself. */
+	private static final int SELF_UID = (int) SELF;
+
+	/** Whether jtop may read the I/O counters of processes of other users. */
+	private static final boolean TRACE_ANY = (SELF & IO_READABLE) != 0;
+
+	/**
+	 * Number of <code>/proc</code> entries read by one task without splitting further.
+	 * Smaller PID lists are always read on the calling thread.
+	 */
+	static final int SPLIT_THRESHOLD = 512;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	/** Worker pool, created on the first collection large enough to need it. */
+	private ForkJoinPool pool;
+
+	/**
+	 * Collects a snapshot of every process listed in <code>/proc</code>.
+	 *
+	 * @return a mutable list with one record per process
+	 * @throws IOException if <code>/proc</code> cannot be listed
+	 */
+	@Override
+	public List<ProcessStat> collect() throws IOException {
+		String[] entries = PROC.list();
+		if (entries == null) {
+			throw new IOException("Cannot list " + PROC);
+		}
+		return collect(entries);
+	}
+
+	/**
+	 * Sets the maximum number of threads that read <code>/proc</code> concurrently.
+	 *
+	 * @param parallelism the number of threads, 1 to collect serially,
+	 *		 or 0 (or less) to use one thread per available core
+	 */
+	@Override
+	public synchronized void setParallelism(int parallelism) {
+		int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		if (threads == this.parallelism) return;
+
+		this.parallelism = threads;
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Reads the processes of the given <code>/proc</code> entry names.
+	 *
+	 * @param entries directory names; entries that are not PIDs are skipped
+	 * @return a mutable list with one record per process, in entry order
+	 */
+	List<ProcessStat> collect(String[] entries) {
+		ForkJoinPool workers = workers(entries.length);
+		if (workers == null) {
+			List<ProcessStat> stats = new ArrayList<>(entries.length);
+			collectRange(entries, 0, entries.length, stats);
+			return stats;
+		}
+		return workers.invoke(new RangeTask(entries, 0, entries.length));
+	}
+
+	/**
+	 * Returns the worker pool, or {@code null} if {@code count} entries are better read serially.
+	 */
+	private synchronized ForkJoinPool workers(int count) {
+		if (parallelism <= 1 || count <= SPLIT_THRESHOLD) return null;
+		if (pool == null) {
+			pool = new ForkJoinPool(parallelism);
+		}
+		return pool;
+	}
+
+	/**
+	 * Reads the entries in {@code [from, to)} into {@code stats}.
+	 */
+	private void collectRange(String[] entries, int from, int to, List<ProcessStat> stats) {
+		for (int i = from; i < to; i++) {
+			long pid = parsePid(entries[i]);
+			if (pid < 0) continue;
+
+			ProcessStat stat = read(pid);
+			if (stat != null) {
+				stats.add(stat);
+			}
+		}
+	}
+
+	/**
+	 * Splits a range of <code>/proc</code> entries in halves until it is small
+	 * enough to read directly, then concatenates the results in entry order.
+	 */
+	private final class RangeTask extends RecursiveTask<List<ProcessStat>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String[] entries;
+		private final int from;
+		private final int to;
+
+		RangeTask(String[] entries, int from, int to) {
+			this.entries = entries;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<ProcessStat> compute() {
+			if (to - from <= SPLIT_THRESHOLD) {
+				List<ProcessStat> stats = new ArrayList<>(to - from);
+				collectRange(entries, from, to, stats);
+				return stats;
+			}
+
+			int mid = (from + to) >>> 1;
+			RangeTask right = new RangeTask(entries, mid, to);
+			right.fork();
+			List<ProcessStat> stats = new RangeTask(entries, from, mid).compute();
+			stats.addAll(right.join());
+			return stats;
+		}
+	}
+
+	/**
+	 * Reads a snapshot of a single process.
+	 *
+	 * @param pid the process ID
+	 * @return the parsed record, or {@code null} if the process no longer exists
+	 */
+	public ProcessStat read(long pid) {
+		ProcReader reader = ProcReader.get();
+		if (!reader.readProcess(pid, "stat")) return null;
+
+		// comm may contain spaces and parentheses, so anchor on the last ')'
+		int open = reader.indexOnLine('(');
+		int close = reader.lastIndexOf(')');
+		if (open < 0 || close < open) return null;
+
+		String name = reader.substring(open + 1, close);
+		reader.seek(close + 1);
+
+		char state = reader.nextChar();						// field 3
+		long ppid = reader.nextLong();						// field 4
+		reader.skipTokens(9);								// fields 5-13
+		long utime = reader.nextLong();						// field 14
+		long stime = reader.nextLong();						// field 15
+		reader.skipTokens(4);								// fields 16-19
+		int threads = reader.nextInt();						// field 20
+		reader.skipToken();									// field 21
+		long startTime = reader.nextLong();					// field 22
+		long vsize = reader.nextLong();						// field 23
+		if (reader.atLineEnd()) return null;				// truncated entry
+
+		long rssPages = readRssPages(reader, pid);
+		long owner = readOwner(reader, pid);
+		if (rssPages < 0) return null;
+
+		int uid = (int) owner;
+		if (owner < 0 || (owner & IO_READABLE) == 0) {
+			return new ProcessStat(pid, ppid, name, state, utime, stime, startTime,
+					threads, vsize, rssPages, uid);
+		}
+
+		// the io file is only opened when the kernel will allow it, so denied PIDs cost nothing
+		long readBytes = -1, writeBytes = -1, readCalls = -1, writeCalls = -1;
+		if (reader.readProcess(pid, "io")) {
+			do {
+				if (reader.startsWith("syscr:")) {
+					reader.skipToken();
+					readCalls = reader.nextLong();
+				} else if (reader.startsWith("syscw:")) {
+					reader.skipToken();
+					writeCalls = reader.nextLong();
+				} else if (reader.startsWith("read_bytes:")) {
+					reader.skipToken();
+					readBytes = reader.nextLong();
+				} else if (reader.startsWith("write_bytes:")) {
+					reader.skipToken();
+					writeBytes = reader.nextLong();
+				}
+			} while (reader.nextLine());
+		}
+
+		return new ProcessStat(pid, ppid, name, state, utime, stime, startTime,
+				threads, vsize, rssPages, uid, readBytes, writeBytes, readCalls, writeCalls);
+	}
+
+	/**
+	 * Reads the resident set size from <code>/proc/[pid]/statm</code>.
+	 *
+	 * @return the resident pages, or -1 if the process no longer exists
+	 */
+	private static long readRssPages(ProcReader reader, long pid) {
+		if (!reader.readProcess(pid, "statm")) return -1;
+		reader.skipToken();
+		return reader.nextLong();
+	}
+
+	/**
+	 * Reads the {@code Uid:} line of <code>/proc/[pid]/status</code>.
+	 * <p>
+	 * Also decides whether <code>/proc/[pid]/io</code> is readable: the kernel
+	 * allows it if jtop may trace any process, or if the real, effective and
+	 * saved user IDs of the target all equal jtop's effective user ID.
+	 * </p>
+	 *
+	 * @return the real user ID in the low 32 bits, with {@link #IO_READABLE} set
+	 *		 if the I/O counters can be read; or -1 if unavailable
+	 */
+	private static long readOwner(ProcReader reader, long pid) {
+		if (!reader.readProcess(pid, "status")) return -1;
+		do {
+			if (reader.startsWith("Uid:")) {
+				reader.skipToken();
+				int real = reader.nextInt();
+				int effective = reader.nextInt();
+				int saved = reader.nextInt();
+
+				boolean readable = TRACE_ANY || (real == SELF_UID && effective == SELF_UID && saved == SELF_UID);
+				return (real & 0xFFFFFFFFL) | (readable ? IO_READABLE : 0);
+			}
+		} while (reader.nextLine());
+		return -1;
+	}
+
+	/**
+	 * Reads jtop's own effective user ID and whether it holds {@code CAP_SYS_PTRACE}.
+	 *
+	 * @return the effective user ID in the low 32 bits, with {@link #IO_READABLE}
+	 *		 set if any process may be inspected
+	 */
+	private static long readSelf() {
+		ProcReader reader = ProcReader.get();
+		if (!reader.read("/proc/self/status")) return 0xFFFFFFFFL;
+
+		int effective = -1;
+		boolean traceAny = false;
+		do {
+			if (reader.startsWith("Uid:")) {
+				reader.skipTokens(2);
+				effective = reader.nextInt();
+			} else if (reader.startsWith("CapEff:")) {
+				reader.skipToken();
+				try {
+					traceAny = (Long.parseUnsignedLong(reader.nextToken(), 16) & (1L << CAP_SYS_PTRACE)) != 0;
+				} catch (NumberFormatException ignored) {}
+			}
+		} while (reader.nextLine());
+		return (effective & 0xFFFFFFFFL) | (traceAny ? IO_READABLE : 0);
+	}
+
+	/**
+	 * Parses a <code>/proc</code> entry name as a PID.
+	 *
+	 * @return the PID, or -1 if the entry is not purely numeric
+	 */
+	private static long parsePid(String entry) {
+		if (entry.isEmpty()) return -1;
+
+		long pid = 0;
+		for (int i = 0; i < entry.length(); i++) {
+			char c = entry.charAt(i);
+			if (c < '0' || c > '9') return -1;
+			pid = pid * 10 + (c - '0');
+		}
+		return pid;
+	}
+}
@@ -0,0 +1,193 @@
+package jtop.system.linux;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jtop.system.ProcessStat;
+import jtop.util.LongIntMap;
+
+/**
+ * Stateful per-process CPU accounting based on interval deltas.
+ * <p>
+ * Keeps the user and system tick counts of every process from the previous
+ * sample, keyed by (pid, start time) so that a reused PID never inherits the
+ * counters of an exited process. Utilization is the number of ticks consumed
+ * since the last sample divided by the ticks that elapsed on all CPUs.
+ * </p>
+ * <p>
+ * A process without previous counters only counts its lifetime ticks if it
+ * started after the previous sample. One that was merely missing from the
+ * previous sample, e.g. after a failed read, gets a new baseline and reports 0
+ * for this interval instead of a spike.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>State lives in parallel primitive arrays indexed through a {@link LongIntMap}</li>
+ *	 <li>Slots of exited processes are recycled via a free list</li>
+ *	 <li>No /proc access; all input comes from collected {@link ProcessStat}s and the caller's uptime</li>
+ * </ul>
+ * </p>
+ */
+public class ProcessCpuAccounting {
+
+	/** Kernel clock ticks per second (USER_HZ), fixed at 100 on all mainstream Linux ABIs. */
+	private static final double TICKS_PER_SECOND = 100.0;
+
+	private final LongIntMap index = new LongIntMap();
+	private final int cpus = Runtime.getRuntime().availableProcessors();
+
+	private long[] keys = new long[0];
+	private long[] prevUser = new long[0];
+	private long[] prevSystem = new long[0];
+	private double[] userPercent = new double[0];
+	private double[] systemPercent = new double[0];
+	private int[] seen = new int[0];
+
+	private int[] freeSlots = new int[0];
+	private int freeCount;
+	private int used;
+
+	private int generation;
+	private long lastSampleNanos;
+	private long lastUptimeTicks = -1;
+
+	/**
+	 * Accounts one sample of all processes.
+	 * <p>
+	 * Must be called once per refresh with the complete process list. Processes
+	 * missing from {@code stats} are considered exited and their state is evicted.
+	 * </p>
+	 *
+	 * @param stats the processes collected in this refresh
+	 * @param uptimeSeconds the time since boot at this sample, or a negative value if unknown
+	 */
+	public synchronized void sample(List<ProcessStat> stats, double uptimeSeconds) {
+		long now = System.nanoTime();
+		boolean first = lastSampleNanos == 0;
+		double capacityTicks = (now - lastSampleNanos) / 1e9 * TICKS_PER_SECOND * cpus;
+		lastSampleNanos = now;
+		long startedAfter = lastUptimeTicks;
+		lastUptimeTicks = uptimeSeconds < 0 ? -1 : Math.round(uptimeSeconds * TICKS_PER_SECOND);
+		generation++;
+
+		for (ProcessStat stat : stats) {
+			long key = stat.key();
+			int slot = index.get(key, -1);
+			long dUser;
+			long dSystem;
+
+			if (slot < 0) {
+				slot = allocate(key);
+				// all ticks count only for a process that started within this interval;
+				// one that was missing from the previous sample just gets a baseline
+				boolean started = !first && startedAfter >= 0 && stat.startTime() >= startedAfter;
+				dUser = started ? stat.utime() : 0;
+				dSystem = started ? stat.stime() : 0;
+			} else {
+				dUser = Math.max(0, stat.utime() - prevUser[slot]);
+				dSystem = Math.max(0, stat.stime() - prevSystem[slot]);
+			}
+
+			prevUser[slot] = stat.utime();
+			prevSystem[slot] = stat.stime();
+			seen[slot] = generation;
+
+			if (first || capacityTicks <= 0) {
+				userPercent[slot] = 0;
+				systemPercent[slot] = 0;
+			} else {
+				userPercent[slot] = Math.min(100.0, 100.0 * dUser / capacityTicks);
+				systemPercent[slot] = Math.min(100.0, 100.0 * dSystem / capacityTicks);
+			}
+		}
+
+		evictStale();
+	}
+
+	/**
+	 * Returns the share of total CPU capacity the process spent in user mode during the last interval.
+	 *
+	 * @param stat the process snapshot
+	 * @return user CPU percentage, or 0 if the process has not been sampled yet
+	 */
+	public synchronized double getUserPercent(ProcessStat stat) {
+		int slot = index.get(stat.key(), -1);
+		return slot < 0 ? 0 : userPercent[slot];
+	}
+
+	/**
+	 * Returns the share of total CPU capacity the process spent in kernel mode during the last interval.
+	 *
+	 * @param stat the process snapshot
+	 * @return system CPU percentage, or 0 if the process has not been sampled yet
+	 */
+	public synchronized double getSystemPercent(ProcessStat stat) {
+		int slot = index.get(stat.key(), -1);
+		return slot < 0 ? 0 : systemPercent[slot];
+	}
+
+	/**
+	 * Returns the share of total CPU capacity the process used during the last interval.
+	 *
+	 * @param stat the process snapshot
+	 * @return user plus system CPU percentage, or 0 if the process has not been sampled yet
+	 */
+	public synchronized double getPercent(ProcessStat stat) {
+		int slot = index.get(stat.key(), -1);
+		return slot < 0 ? 0 : userPercent[slot] + systemPercent[slot];
+	}
+
+	/**
+	 * Returns the number of processes currently tracked.
+	 *
+	 * @return the number of live entries
+	 */
+	public synchronized int size() {
+		return index.size();
+	}
+
+	/**
+	 * Assigns a slot to a new key, reusing a freed slot when possible.
+	 */
+	private int allocate(long key) {
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (used == keys.length) {
+				grow(Math.max(256, keys.length * 2));
+			}
+			slot = used++;
+		}
+		keys[slot] = key;
+		index.put(key, slot);
+		return slot;
+	}
+
+	/**
+	 * Releases the slots of all processes not seen in the current generation.
+	 */
+	private void evictStale() {
+		for (int slot = 0; slot < used; slot++) {
+			if (seen[slot] != 0 && seen[slot] != generation) {
+				index.remove(keys[slot], -1);
+				seen[slot] = 0;
+				if (freeCount == freeSlots.length) {
+					freeSlots = Arrays.copyOf(freeSlots, Math.max(64, freeSlots.length * 2));
+				}
+				freeSlots[freeCount++] = slot;
+			}
+		}
+	}
+
+	private void grow(int capacity) {
+		keys = Arrays.copyOf(keys, capacity);
+		prevUser = Arrays.copyOf(prevUser, capacity);
+		prevSystem = Arrays.copyOf(prevSystem, capacity);
+		userPercent = Arrays.copyOf(userPercent, capacity);
+		systemPercent = Arrays.copyOf(systemPercent, capacity);
+		seen = Arrays.copyOf(seen, capacity);
+	}
+}
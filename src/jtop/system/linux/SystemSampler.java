@@ -1,21 +1,84 @@
 package jtop.system.linux;
 
 import jtop.Isystem.ICpuInfo;
+import jtop.Isystem.IDiskInfo;
 import jtop.Isystem.IMemoryInfo;
+import jtop.Isystem.INetworkInfo;
 import jtop.Isystem.ITemperatureInfo;
+import jtop.system.CpuTimes;
+import jtop.system.DiskStats;
+import jtop.system.NetworkStats;
+import jtop.util.DoubleRing;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Caches CPU, memory, and temperature readings to avoid repeated blocking IO.
+ * <p>
+ * System CPU utilization is derived from the delta between the
+ * <code>/proc/stat</code> counters of this refresh and the previous one, so
+ * refreshing never sleeps. The first refresh reports the average since boot.
+ * Disk rates are derived the same way from consecutive <code>/proc/diskstats</code>
+ * snapshots and are zero until the second refresh, and so are network rates
+ * from consecutive <code>/proc/net/dev</code> snapshots.
+ * </p>
+ * <p>
+ * The last {@link #getHistorySize()} values of system CPU, memory, load, every
+ * temperature sensor and every core are kept in {@link DoubleRing}s, one sample
+ * per refresh, so memory use depends on the number of sensors and cores but
+ * not on how long the session runs.
+ * </p>
+ * <p>
+ * This class is not thread-safe: {@link #refresh} changes the cached values,
+ * the history rings and the temperature map in place, and pairs such as
+ * {@link #getDiskStats()} and {@link #getDiskRates()} only match between two
+ * refreshes. Callers must serialize refreshes and reads, as
+ * {@link jtop.core.ShowProcesses} does with its lock.
+ * </p>
  */
 public class SystemSampler {
 
 	private double lastCpuUsage;
+	private double[] lastCpuBreakdown = new double[CpuTimes.FIELDS];
+	private double[] lastCoreUsage = new double[0];
+	private CpuTimes previousCpuTimes;
+	private DiskStats previousDiskStats;
+	private double[] lastDiskRates = new double[0];
+	private NetworkStats previousNetworkStats;
+	private double[] lastNetworkRates = new double[0];
 	private double lastMemPercent;
 	private Map<String, Double> lastTemps;
 	private double totalMemoryBytes = 0;
+	private double lastLoad = Double.NaN;
+
+	// one sample per refresh, oldest first
+	private final int historySize;
+	private final DoubleRing cpuHistory;
+	private final DoubleRing memHistory;
+	private final DoubleRing loadHistory;
+	private final Map<String, DoubleRing> tempHistory = new LinkedHashMap<>();
+	private DoubleRing[] coreHistory = new DoubleRing[0];
+
+	/**
+	 * Creates a sampler keeping 120 samples of history.
+	 */
+	public SystemSampler() {
+		this(120);
+	}
+
+	/**
+	 * Creates a sampler.
+	 *
+	 * @param historySize the number of refreshes kept per metric, at least 1
+	 */
+	public SystemSampler(int historySize) {
+		this.historySize = Math.max(1, historySize);
+		this.cpuHistory = new DoubleRing(this.historySize);
+		this.memHistory = new DoubleRing(this.historySize);
+		this.loadHistory = new DoubleRing(this.historySize);
+	}
 
 	/**
 	 * Initialize total memory once.
@@ -30,12 +93,19 @@ public class SystemSampler {
 	}
 
 	/**
-	 * Refreshes cached CPU, memory, and temperature info.
+	 * Refreshes cached CPU, memory, temperature, disk and network info.
 	 * If total memory was not initialized, it will attempt to cache it now.
 	 */
-	public void refresh(ICpuInfo cpu, IMemoryInfo mem, ITemperatureInfo temps) {
+	public void refresh(ICpuInfo cpu, IMemoryInfo mem, ITemperatureInfo temps, IDiskInfo disks,
+			INetworkInfo network) {
 		try {
-			lastCpuUsage = cpu.getCpuUsage(100); // CPU usage snapshot
+			CpuTimes times = cpu.readCpuTimes();
+			if (times != null) {
+				lastCpuUsage = times.utilization(previousCpuTimes);
+				lastCpuBreakdown = times.breakdown(previousCpuTimes);
+				lastCoreUsage = times.coreUtilization(previousCpuTimes);
+				previousCpuTimes = times;
+			}
 		} catch (Exception e) {
 			lastCpuUsage = 0;
 		}
@@ -56,13 +126,178 @@ public class SystemSampler {
 
 		try {
 			lastTemps = temps != null ? temps.getTemperatures() : Map.of();
+			if (lastTemps == null) lastTemps = Map.of();
 		} catch (Exception e) {
 			lastTemps = Map.of();
 		}
+
+		DiskStats diskStats = disks != null ? disks.readDiskStats() : null;
+		if (diskStats != null) {
+			lastDiskRates = diskStats.rates(previousDiskStats);
+			previousDiskStats = diskStats;
+		}
+
+		NetworkStats networkStats = network != null ? network.readNetworkStats() : null;
+		if (networkStats != null) {
+			lastNetworkRates = networkStats.rates(previousNetworkStats);
+			previousNetworkStats = networkStats;
+		}
+
+		lastLoad = cpu != null ? parseLoad(cpu.getLoadAverage()) : Double.NaN;
+		recordHistory();
+	}
+
+	/**
+	 * Sets the system-wide values from a recording instead of reading the live system.
+	 * <p>
+	 * Recordings keep no per-core, per-sensor or per-device values, so those
+	 * are cleared and their header rows show as unavailable.
+	 * </p>
+	 *
+	 * @param cpu the CPU utilization in percent
+	 * @param memory the memory usage in percent
+	 * @param load the 1-minute load average, or NaN
+	 */
+	public void restore(double cpu, double memory, double load) {
+		lastCpuUsage = cpu;
+		lastMemPercent = memory;
+		lastLoad = load;
+		lastCpuBreakdown = new double[CpuTimes.FIELDS];
+		lastCoreUsage = new double[0];
+		lastTemps = Map.of();
+		previousCpuTimes = null;
+		previousDiskStats = null;
+		lastDiskRates = new double[0];
+		previousNetworkStats = null;
+		lastNetworkRates = new double[0];
+		recordHistory();
+	}
+
+	/**
+	 * Drops all recent history, e.g. after jumping to another point of a recording.
+	 */
+	public void clearHistory() {
+		cpuHistory.clear();
+		memHistory.clear();
+		loadHistory.clear();
+		tempHistory.clear();
+		coreHistory = new DoubleRing[0];
+	}
+
+	/**
+	 * Appends the values of this refresh to the histories.
+	 */
+	private void recordHistory() {
+		cpuHistory.add(lastCpuUsage);
+		memHistory.add(lastMemPercent);
+		loadHistory.add(lastLoad);
+
+		// sensors that disappeared are dropped so the map stays bounded
+		tempHistory.keySet().retainAll(lastTemps.keySet());
+		for (Map.Entry<String, Double> entry : lastTemps.entrySet()) {
+			tempHistory.computeIfAbsent(entry.getKey(), k -> new DoubleRing(historySize)).add(entry.getValue());
+		}
+
+		if (coreHistory.length != lastCoreUsage.length) {
+			// cores went on- or offline; per-core indices no longer line up
+			coreHistory = new DoubleRing[lastCoreUsage.length];
+			for (int i = 0; i < coreHistory.length; i++) coreHistory[i] = new DoubleRing(historySize);
+		}
+		for (int i = 0; i < coreHistory.length; i++) {
+			coreHistory[i].add(lastCoreUsage[i]);
+		}
+	}
+
+	/**
+	 * Returns the 1-minute load average from a <code>/proc/loadavg</code> line.
+	 */
+	private static double parseLoad(String load) {
+		if (load == null) return Double.NaN;
+		int end = load.indexOf(' ');
+		try {
+			return Double.parseDouble(end < 0 ? load : load.substring(0, end));
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
 	}
 
 	public double getCpu() { return lastCpuUsage; }
+
+	/**
+	 * Returns the share of each CPU time category in the last interval.
+	 *
+	 * @return percentages indexed by {@link CpuTimes#USER} through {@link CpuTimes#STEAL}
+	 */
+	public double[] getCpuBreakdown() { return lastCpuBreakdown.clone(); }
+
+	/**
+	 * Returns the share of one CPU time category in the last interval.
+	 *
+	 * @param field the category, e.g. {@link CpuTimes#IOWAIT}
+	 * @return the percentage of elapsed CPU time
+	 */
+	public double getCpu(int field) { return lastCpuBreakdown[field]; }
+
+	/**
+	 * Returns the utilization of every online core in the last interval.
+	 *
+	 * @return one percentage per core; empty if per-core counters are unavailable
+	 */
+	public double[] getCoreUsage() { return lastCoreUsage; }
 	public double getMem() { return lastMemPercent; }
+
+	/**
+	 * Returns the disk counters of the last refresh, for device names.
+	 *
+	 * @return the latest snapshot, or {@code null} if disk statistics are unavailable
+	 */
+	public DiskStats getDiskStats() { return previousDiskStats; }
+
+	/**
+	 * Returns the rates of every disk in the last interval.
+	 *
+	 * @return {@link DiskStats#RATE_FIELDS} values per device, in the device order of {@link #getDiskStats()}
+	 */
+	public double[] getDiskRates() { return lastDiskRates; }
+
+	/**
+	 * Returns the network counters of the last refresh, for interface names.
+	 *
+	 * @return the latest snapshot, or {@code null} if network statistics are unavailable
+	 */
+	public NetworkStats getNetworkStats() { return previousNetworkStats; }
+
+	/**
+	 * Returns the per-second rates of every interface in the last interval.
+	 *
+	 * @return {@link NetworkStats#FIELDS} values per interface, in the interface order of {@link #getNetworkStats()}
+	 */
+	public double[] getNetworkRates() { return lastNetworkRates; }
 	public Map<String, Double> getTemps() { return lastTemps; }
+
+	/**
+	 * Returns the 1-minute load average of the last refresh.
+	 *
+	 * @return the load average, or NaN if unavailable
+	 */
+	public double getLoad() { return lastLoad; }
+
+	/** @return the number of samples kept per metric */
+	public int getHistorySize() { return historySize; }
+
+	/** @return the system CPU utilization of recent refreshes, in percent */
+	public DoubleRing getCpuHistory() { return cpuHistory; }
+
+	/** @return the memory usage of recent refreshes, in percent */
+	public DoubleRing getMemHistory() { return memHistory; }
+
+	/** @return the 1-minute load average of recent refreshes, NaN where unavailable */
+	public DoubleRing getLoadHistory() { return loadHistory; }
+
+	/** @return the readings of recent refreshes per temperature sensor, in °C */
+	public Map<String, DoubleRing> getTempHistory() { return tempHistory; }
+
+	/** @return the utilization of recent refreshes per core, in percent */
+	public DoubleRing[] getCoreHistory() { return coreHistory; }
 	public double getTotalMemoryBytes() { return totalMemoryBytes; }
 }
\ No newline at end of file
@@ -79,11 +79,10 @@ public class TemperatureInfo implements ITemperatureInfo {
 	}
 
 	private double readTempMilliC(Path path) {
-		try {
-			String str = Files.readString(path).trim();
-			return Double.parseDouble(str) / 1000.0;
-		} catch (IOException | NumberFormatException e) {
+		ProcReader reader = ProcReader.get();
+		if (!reader.read(path.toString()) || reader.atLineEnd()) {
 			return Double.NaN;
 		}
+		return reader.nextLong() / 1000.0;
 	}
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package jtop.system.linux;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
 
 import jtop.Isystem.IUptime;
 
@@ -25,8 +24,11 @@ public class Uptime implements IUptime{
 	 *				   or if the timeFormat is invalid.
 	 */
 	public double getSystemUptime(char timeFormat) throws Exception {
-		String content = Files.readString(Path.of("/proc/uptime"));
-		double seconds = Double.parseDouble(content.split(" ")[0]);
+		ProcReader reader = ProcReader.get();
+		if (!reader.read("/proc/uptime")) {
+			throw new IOException("Cannot read /proc/uptime");
+		}
+		double seconds = reader.nextDouble();
 
 		return switch (timeFormat) {
 			case 's' -> seconds;
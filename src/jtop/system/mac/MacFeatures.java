@@ -20,7 +20,8 @@ public final class MacFeatures {
      * </p>
      */
     public static final EnumSet<Feature> SUPPORTED = EnumSet.of(
-        Feature.PROCESS
+        Feature.PROCESS,
+        Feature.PROCESS_LIST
     );
 
     /** Private constructor to prevent instantiation of this utility class. */
@@ -0,0 +1,52 @@
+package jtop.system.mac;
+
+import java.util.ArrayList;
+import java.util.List;
+import jtop.Isystem.IProcessCollector;
+import jtop.system.ProcessStat;
+import jtop.system.UserNames;
+
+/**
+ * Collects a snapshot of all processes.
+ * <p>
+ * Uses {@link ProcessHandle} since macOS has no <code>/proc</code> filesystem.
+ * Fields that {@link ProcessHandle} cannot provide are left at their neutral values.
+ * The owner is reported by name and mapped back to its user ID through {@link UserNames}.
+ * </p>
+ */
+public class ProcessCollector implements IProcessCollector {
+
+	/** Nanoseconds per clock tick, assuming the usual 100 Hz tick rate. */
+	private static final long NANOS_PER_TICK = 10_000_000L;
+
+	/**
+	 * Collects a snapshot of every process visible to the JVM.
+	 *
+	 * @return a mutable list with one record per process
+	 */
+	@Override
+	public List<ProcessStat> collect() {
+		List<ProcessStat> stats = new ArrayList<>();
+		ProcessHandle.allProcesses().forEach(ph -> {
+			ProcessHandle.Info info = ph.info();
+			String command = info.command().orElse("Unknown");
+			long cpuTicks = info.totalCpuDuration().map(d -> d.toNanos() / NANOS_PER_TICK).orElse(0L);
+			long startTime = info.startInstant().map(i -> i.toEpochMilli() / 10).orElse(0L);
+
+			stats.add(new ProcessStat(
+					ph.pid(),
+					ph.parent().map(ProcessHandle::pid).orElse(0L),
+					command.substring(command.lastIndexOf('/') + 1),
+					'?',
+					cpuTicks,
+					0,
+					startTime,
+					0,
+					0,
+					0,
+					UserNames.uid(info.user().orElse(null))
+			));
+		});
+		return stats;
+	}
+}
@@ -1,17 +1,31 @@
 package jtop.terminal;
 
+import java.util.Arrays;
 import java.util.Map;
 
+import jtop.system.DiskStats;
+import jtop.system.NetworkStats;
 import jtop.system.linux.SystemSampler;
+import jtop.util.DoubleRing;
+import jtop.util.UnitFormat;
 
 public class Header {
 
-	private static final String RESET = "\033[0m";
 	private static final String HEADER_BG = "\033[44m";
 	private static final String HEADER_FG = "\033[97m";
 
-	// draw header using cached SystemSampler values
-	public static void draw(SystemSampler sampler, double uptime, String load) {
+	// per-core strip and sparklines: one block character per cell, taller means busier
+	static final char[] LEVELS = {'\u2581', '\u2582', '\u2583', '\u2584', '\u2585', '\u2586', '\u2587', '\u2588'};
+	private static final String CORE_LOW = "\033[32m";
+	private static final String CORE_MID = "\033[33m";
+	private static final String CORE_HIGH = "\033[31m";
+
+	/** Smallest temperature range in °C a sparkline is scaled to. */
+	private static final double TEMP_SPAN = 10;
+
+	// draw header into the screen buffer using cached SystemSampler values
+	public static void draw(Screen screen, int row, SystemSampler sampler, double uptime, String load,
+							UnitFormat readFormat, UnitFormat writeFormat, UnitFormat networkFormat) {
 		try {
 			double cpuUsage = sampler.getCpu();
 			double memPercent = sampler.getMem();
@@ -19,8 +33,7 @@ public class Header {
 			double usedMem = totalMem * (memPercent / 100.0);
 
 			StringBuilder sb = new StringBuilder();
-			sb.append(HEADER_BG).append(HEADER_FG);
-			sb.append(String.format(" Uptime: %.1fh ", uptime));
+			sb.append(Double.isNaN(uptime) ? " Uptime: ? " : String.format(" Uptime: %.1fh ", uptime));
 			sb.append(String.format("| Load: %s ", load));
 			sb.append(String.format("| CPU: %.1f%% ", cpuUsage));
 			sb.append(String.format("| Mem: %.1f%% (%.1f/%.1f GB) ",
@@ -35,16 +48,223 @@ public class Header {
 				}
 			}
 
-			int terminalWidth = TerminalSize.getColumns();
-			String line = sb.length() > terminalWidth ? sb.substring(0, terminalWidth - 1) : sb.toString();
-			System.out.println(line + RESET);
+			screen.print(row, 0, sb.toString(), HEADER_BG + HEADER_FG);
+			drawHistory(screen, row + 1, sampler);
+			drawCores(screen, row + 2, sampler.getCoreUsage());
+			drawDisks(screen, row + 3, sampler.getDiskStats(), sampler.getDiskRates(), readFormat, writeFormat);
+			drawNetwork(screen, row + 4, sampler.getNetworkStats(), sampler.getNetworkRates(), networkFormat);
 
 		} catch (Exception e) {
-			System.out.println(HEADER_BG + HEADER_FG + " Header error: " + e.getMessage() + RESET);
+			screen.print(row, 0, " Header error: " + e.getMessage(), HEADER_BG + HEADER_FG);
+		}
+	}
+
+	/**
+	 * Draws one row of sparklines with the recent history of CPU, memory, load
+	 * and up to three temperature sensors.
+	 * <p>
+	 * The row is split evenly between the metrics, and each shows as many of
+	 * its newest samples as fit, newest on the right. Percentages are scaled to
+	 * 0-100; load to 0 up to its recent maximum; temperatures to their recent
+	 * range, but at least {@link #TEMP_SPAN} degrees so noise stays flat.
+	 * </p>
+	 */
+	private static void drawHistory(Screen screen, int row, SystemSampler sampler) {
+		int col = screen.print(row, 0, " History ", HEADER_BG + HEADER_FG);
+
+		Map<String, DoubleRing> temps = sampler.getTempHistory();
+		int sensors = Math.min(3, temps.size());
+		int width = (screen.getColumns() - col) / (3 + sensors);
+		if (width <= 0) return;
+
+		col = drawSparkline(screen, row, col, width, "CPU", sampler.getCpuHistory(), 0, 100, 0);
+		col = drawSparkline(screen, row, col, width, "Mem", sampler.getMemHistory(), 0, 100, 0);
+		col = drawSparkline(screen, row, col, width, "Load", sampler.getLoadHistory(), 0, Double.NaN, 1);
+
+		int count = 0;
+		for (Map.Entry<String, DoubleRing> entry : temps.entrySet()) {
+			if (count++ >= sensors) break;
+			col = drawSparkline(screen, row, col, width, entry.getKey(), entry.getValue(), Double.NaN, Double.NaN, TEMP_SPAN);
+		}
+	}
+
+	/**
+	 * Draws a label and a sparkline of a ring's newest samples into {@code width} columns.
+	 *
+	 * @param low the value of the lowest block, or NaN for the minimum of the shown samples
+	 * @param high the value of the highest block, or NaN for the maximum of the shown samples
+	 * @param minSpan the smallest range between {@code low} and {@code high}
+	 * @return the column after the drawn text
+	 */
+	private static int drawSparkline(Screen screen, int row, int col, int width, String label, DoubleRing ring,
+									 double low, double high, double minSpan) {
+		String prefix = "| " + label + " ";
+		int cells = width - prefix.length() - 1;
+		if (cells <= 0) return col;
+
+		int shown = Math.min(cells, ring.size());
+		if (Double.isNaN(low)) low = ring.min(shown);
+		if (Double.isNaN(high)) high = ring.max(shown);
+		if (!(high - low >= minSpan)) high = low + minSpan;
+
+		StringBuilder sb = new StringBuilder(width);
+		sb.append(prefix);
+		for (int i = shown; i < cells; i++) sb.append(' ');
+		for (int i = ring.size() - shown; i < ring.size(); i++) {
+			double value = ring.get(i);
+			if (Double.isNaN(value) || !(high > low)) {
+				sb.append(' ');
+				continue;
+			}
+			double scaled = (Math.min(high, Math.max(low, value)) - low) / (high - low);
+			sb.append(LEVELS[(int) Math.round(scaled * (LEVELS.length - 1))]);
+		}
+		sb.append(' ');
+		return screen.print(row, col, sb.toString(), HEADER_BG + HEADER_FG);
+	}
+
+	/**
+	 * Draws a one-row heat strip with the utilization of every core.
+	 * <p>
+	 * Each cell shows one core as a block whose height and color follow its load.
+	 * If there are more cores than cells, adjacent cores share a cell that shows
+	 * the busiest of them, so the strip never wraps regardless of the core count.
+	 * </p>
+	 */
+	private static void drawCores(Screen screen, int row, double[] usage) {
+		if (usage == null || usage.length == 0) return;
+
+		String label = String.format(" Cores(%d) ", usage.length);
+		int col = screen.print(row, 0, label, HEADER_BG + HEADER_FG);
+		int width = screen.getColumns() - col - 1;
+		if (width <= 0) return;
+
+		int perCell = (usage.length + width - 1) / width;
+		for (int start = 0; start < usage.length; start += perCell) {
+			double max = 0;
+			for (int i = start; i < Math.min(usage.length, start + perCell); i++) {
+				max = Math.max(max, usage[i]);
+			}
+
+			int level = (int) Math.round(Math.min(100, Math.max(0, max)) / 100.0 * (LEVELS.length - 1));
+			String color = max >= 80 ? CORE_HIGH : max >= 50 ? CORE_MID : CORE_LOW;
+			col = screen.print(row, col, String.valueOf(LEVELS[level]), HEADER_BG + color);
+		}
+	}
+
+	/**
+	 * Draws one row with the throughput, IOPS, latency and utilization of the disks.
+	 * <p>
+	 * Disks are listed busiest first and only as many as fit on the row; disks
+	 * without any I/O in the last interval are left out.
+	 * </p>
+	 */
+	private static void drawDisks(Screen screen, int row, DiskStats stats, double[] rates,
+								  UnitFormat readFormat, UnitFormat writeFormat) {
+		int col = screen.print(row, 0, " Disks ", HEADER_BG + HEADER_FG);
+		if (stats == null || rates.length < stats.count() * DiskStats.RATE_FIELDS) {
+			screen.print(row, col, "n/a", HEADER_BG + HEADER_FG);
+			return;
+		}
+
+		// order devices by utilization, then throughput
+		Integer[] order = new Integer[stats.count()];
+		for (int i = 0; i < order.length; i++) order[i] = i;
+		Arrays.sort(order, (a, b) -> {
+			int cmp = Double.compare(rate(rates, b, DiskStats.UTIL_PERCENT), rate(rates, a, DiskStats.UTIL_PERCENT));
+			return cmp != 0 ? cmp : Double.compare(throughput(rates, b), throughput(rates, a));
+		});
+
+		int shown = 0;
+		for (int d : order) {
+			if (throughput(rates, d) == 0 && rate(rates, d, DiskStats.UTIL_PERCENT) == 0) continue;
+
+			String text = String.format("| %s R %s %s/s W %s %s/s %.0f IOPS %.1fms %.0f%% ",
+					stats.device(d),
+					readFormat.format(rate(rates, d, DiskStats.READ_BYTES_PER_SEC)), readFormat.getUnit(),
+					writeFormat.format(rate(rates, d, DiskStats.WRITE_BYTES_PER_SEC)), writeFormat.getUnit(),
+					rate(rates, d, DiskStats.READ_IOPS) + rate(rates, d, DiskStats.WRITE_IOPS),
+					rate(rates, d, DiskStats.AWAIT_MS),
+					rate(rates, d, DiskStats.UTIL_PERCENT));
+			if (col + text.length() > screen.getColumns()) break;
+			col = screen.print(row, col, text, HEADER_BG + HEADER_FG);
+			shown++;
+		}
+		if (shown == 0) {
+			screen.print(row, col, "idle", HEADER_BG + HEADER_FG);
 		}
 	}
 
+	/**
+	 * Draws one row with the throughput, packet rates, errors and drops of the network interfaces.
+	 * <p>
+	 * Interfaces are listed by throughput, busiest first, and only as many as
+	 * fit on the row; interfaces without traffic in the last interval are left out.
+	 * Errors and drops are only shown when they occur.
+	 * </p>
+	 */
+	private static void drawNetwork(Screen screen, int row, NetworkStats stats, double[] rates, UnitFormat format) {
+		int col = screen.print(row, 0, " Net ", HEADER_BG + HEADER_FG);
+		if (stats == null || rates.length < stats.count() * NetworkStats.FIELDS) {
+			screen.print(row, col, "n/a", HEADER_BG + HEADER_FG);
+			return;
+		}
+
+		Integer[] order = new Integer[stats.count()];
+		for (int i = 0; i < order.length; i++) order[i] = i;
+		Arrays.sort(order, (a, b) -> {
+			int cmp = Double.compare(traffic(rates, b, NetworkStats.RX_BYTES), traffic(rates, a, NetworkStats.RX_BYTES));
+			return cmp != 0 ? cmp : Double.compare(traffic(rates, b, NetworkStats.RX_PACKETS), traffic(rates, a, NetworkStats.RX_PACKETS));
+		});
+
+		int shown = 0;
+		for (int i : order) {
+			if (traffic(rates, i, NetworkStats.RX_PACKETS) == 0) continue;
+
+			StringBuilder text = new StringBuilder(80);
+			text.append(String.format("| %s Rx %s %s/s Tx %s %s/s %.0f/%.0f pkt/s ",
+					stats.name(i),
+					format.format(netRate(rates, i, NetworkStats.RX_BYTES)), format.getUnit(),
+					format.format(netRate(rates, i, NetworkStats.TX_BYTES)), format.getUnit(),
+					netRate(rates, i, NetworkStats.RX_PACKETS),
+					netRate(rates, i, NetworkStats.TX_PACKETS)));
+			double errors = traffic(rates, i, NetworkStats.RX_ERRORS);
+			double drops = traffic(rates, i, NetworkStats.RX_DROPS);
+			if (errors > 0) text.append(String.format("err %.0f/s ", errors));
+			if (drops > 0) text.append(String.format("drop %.0f/s ", drops));
+
+			if (col + text.length() > screen.getColumns()) break;
+			col = screen.print(row, col, text.toString(), HEADER_BG + HEADER_FG);
+			shown++;
+		}
+		if (shown == 0) {
+			screen.print(row, col, "idle", HEADER_BG + HEADER_FG);
+		}
+	}
+
+	private static double netRate(double[] rates, int iface, int field) {
+		return rates[iface * NetworkStats.FIELDS + field];
+	}
+
+	/**
+	 * Returns the sum of a receive rate and the matching transmit rate.
+	 *
+	 * @param rxField a receive index such as {@link NetworkStats#RX_BYTES}
+	 */
+	private static double traffic(double[] rates, int iface, int rxField) {
+		int txField = rxField - NetworkStats.RX_BYTES + NetworkStats.TX_BYTES;
+		return netRate(rates, iface, rxField) + netRate(rates, iface, txField);
+	}
+
+	private static double rate(double[] rates, int device, int field) {
+		return rates[device * DiskStats.RATE_FIELDS + field];
+	}
+
+	private static double throughput(double[] rates, int device) {
+		return rate(rates, device, DiskStats.READ_BYTES_PER_SEC) + rate(rates, device, DiskStats.WRITE_BYTES_PER_SEC);
+	}
+
 	public static int getRowsCount() {
-		return 1;
+		return 5;
 	}
 }
\ No newline at end of file
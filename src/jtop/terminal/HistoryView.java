@@ -0,0 +1,132 @@
+package jtop.terminal;
+
+import jtop.core.MetricHistory;
+import jtop.core.MetricHistory.Series;
+import jtop.util.UnitFormat;
+
+/**
+ * Draws the long-term history of all {@link Series} as bar charts.
+ * <p>
+ * The available rows are shared evenly between the series. Each series gets a
+ * title row with its average and peak over the window, followed by a chart of
+ * the average per column; with a single row per series the title and a
+ * sparkline share the row. Every column covers an equal slice of the window,
+ * read from the rollup tier that {@link MetricHistory#query} picks for that
+ * slice width.
+ * </p>
+ */
+public class HistoryView {
+
+	/** Width of the title when it shares the row with the chart. */
+	private static final int INLINE_TITLE = 34;
+
+	private HistoryView() {}
+
+	/**
+	 * Draws the charts of a time window.
+	 *
+	 * @param screen the target buffer
+	 * @param top the first row to use
+	 * @param height the number of rows to use
+	 * @param history the recorded metrics
+	 * @param from the start of the window in milliseconds
+	 * @param to the end of the window in milliseconds
+	 * @param readFormat unit of the disk read series
+	 * @param writeFormat unit of the disk write series
+	 * @param networkFormat unit of the network series
+	 * @param style the color of the view
+	 * @return the source of the data, as returned by {@link MetricHistory#query}
+	 */
+	public static int draw(Screen screen, int top, int height, MetricHistory history, long from, long to,
+						   UnitFormat readFormat, UnitFormat writeFormat, UnitFormat networkFormat, String style) {
+		Series[] all = Series.values();
+		int shown = Math.min(all.length, height);
+		int source = MetricHistory.RAW;
+		if (shown <= 0) return source;
+
+		int rowsEach = height / shown;
+		int columns = screen.getColumns();
+		for (int i = 0; i < shown; i++) {
+			Series series = all[i];
+			int row = top + i * rowsEach;
+			int width = rowsEach == 1 ? columns - INLINE_TITLE : columns;
+			if (width <= 0) continue;
+
+			double[] min = new double[width];
+			double[] max = new double[width];
+			double[] avg = new double[width];
+			source = history.query(series, from, to, min, max, avg);
+
+			double mean = 0;
+			double peak = Double.NaN;
+			int filled = 0;
+			for (int c = 0; c < width; c++) {
+				if (Double.isNaN(avg[c])) continue;
+				mean += avg[c];
+				filled++;
+				if (!(max[c] <= peak)) peak = max[c];
+			}
+			mean = filled > 0 ? mean / filled : Double.NaN;
+
+			String title = String.format(" %-10s avg %s  peak %s",
+					series.getLabel(),
+					format(series, mean, readFormat, writeFormat, networkFormat),
+					format(series, peak, readFormat, writeFormat, networkFormat));
+			if (filled == 0) title = String.format(" %-10s no data", series.getLabel());
+
+			// percentages use a fixed scale; other series scale to their peak
+			boolean percent = series == Series.CPU || series == Series.MEMORY;
+			double high = percent ? 100 : Double.isNaN(peak) || peak <= 0 ? 1 : peak;
+
+			if (rowsEach == 1) {
+				String inline = title.length() > INLINE_TITLE ? title.substring(0, INLINE_TITLE) : title;
+				int col = screen.print(row, 0, String.format("%-" + INLINE_TITLE + "s", inline), style);
+				screen.print(row, col, bars(avg, high, 1, 0), style);
+			} else {
+				screen.print(row, 0, title, style);
+				int chartRows = rowsEach - 1;
+				for (int r = 0; r < chartRows; r++) {
+					// r counts from the top; bars are filled from the bottom
+					screen.print(row + 1 + r, 0, bars(avg, high, chartRows, chartRows - 1 - r), style);
+				}
+			}
+		}
+		return source;
+	}
+
+	/**
+	 * Returns one row of a bar chart.
+	 *
+	 * @param values the value per column; NaN leaves the column empty
+	 * @param high the value of a full-height bar
+	 * @param rows the height of the chart
+	 * @param level the row to render, 0 being the bottom
+	 */
+	private static String bars(double[] values, double high, int rows, int level) {
+		StringBuilder sb = new StringBuilder(values.length);
+		for (double value : values) {
+			if (Double.isNaN(value)) {
+				sb.append(' ');
+				continue;
+			}
+			double scaled = Math.min(1, Math.max(0, value / high));
+			int eighths = (int) Math.round(scaled * rows * 8) - level * 8;
+			// a non-zero value always shows at least the lowest block
+			if (level == 0 && eighths <= 0 && value > 0) eighths = 1;
+			sb.append(eighths <= 0 ? ' ' : Header.LEVELS[Math.min(8, eighths) - 1]);
+		}
+		return sb.toString();
+	}
+
+	private static String format(Series series, double value, UnitFormat readFormat, UnitFormat writeFormat,
+								 UnitFormat networkFormat) {
+		if (Double.isNaN(value)) return "?";
+		return switch (series) {
+			case CPU, MEMORY -> UnitFormat.fixed(value, 1) + "%";
+			case LOAD -> UnitFormat.fixed(value, 2);
+			case DISK_READ -> readFormat.format(value) + " " + readFormat.getUnit() + "/s";
+			case DISK_WRITE -> writeFormat.format(value) + " " + writeFormat.getUnit() + "/s";
+			case NET_RX, NET_TX -> networkFormat.format(value) + " " + networkFormat.getUnit() + "/s";
+		};
+	}
+}
@@ -2,7 +2,7 @@ package jtop.terminal;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import jtop.core.ShowProcesses;
-import jtop.core.ProcessTableRenderer;
+import jtop.record.Player;
 
 /**
  * Handles keyboard and mouse input from the user for the process monitor.
@@ -13,6 +13,9 @@ import jtop.core.ProcessTableRenderer;
  *	 <li>Scrolling (Arrow keys, 'j'/'k', mouse wheel)</li>
  *	 <li>Sorting by column (mouse click on header)</li>
  *	 <li>Paging (Enter key)</li>
+ *	 <li>Switching to the history view ('h'), zooming it ('+'/'-') and moving it in time (scroll keys)</li>
+ *	 <li>When replaying a recording: pausing (space), stepping (','/'.'), speed ('&lt;'/'&gt;')
+ *		 and seeking (Left/Right arrows)</li>
  *	 <li>Exiting the application ('q' or Ctrl+C)</li>
  * </ul>
  */
@@ -27,6 +30,9 @@ public class InputHandler {
 	/** Provides the current terminal size. */
 	private final TerminalSize terminalSize;
 
+	/** The player of a recording being replayed, or {@code null} when showing the live system. */
+	private final Player player;
+
 	/**
 	 * Creates a new input handler for a given process table and terminal.
 	 *
@@ -35,9 +41,22 @@ public class InputHandler {
 	 * @param terminalSize the {@link TerminalSize} instance
 	 */
 	public InputHandler(ShowProcesses showProcesses, AtomicBoolean refresh, TerminalSize terminalSize) {
+		this(showProcesses, refresh, terminalSize, null);
+	}
+
+	/**
+	 * Creates a new input handler that also controls the replay of a recording.
+	 *
+	 * @param showProcesses the {@link ShowProcesses} instance to control
+	 * @param refresh atomic boolean controlling background refresh
+	 * @param terminalSize the {@link TerminalSize} instance
+	 * @param player the replay to control, or {@code null} for the live system
+	 */
+	public InputHandler(ShowProcesses showProcesses, AtomicBoolean refresh, TerminalSize terminalSize, Player player) {
 		this.showProcesses = showProcesses;
 		this.refresh = refresh;
 		this.terminalSize = terminalSize;
+		this.player = player;
 	}
 
 	/**
@@ -50,7 +69,6 @@ public class InputHandler {
 	 * @throws Exception if an I/O error occurs while reading input
 	 */
 	public void start() throws Exception {
-		int pageSize = terminalSize.getRows() - ProcessTableRenderer.getHeaderAndFooterLength();
 		int c;
 
 		while ((c = System.in.read()) != -1) {
@@ -62,6 +80,8 @@ public class InputHandler {
 							case 65 -> showProcesses.scrollUp();	 // Arrow Up
 							case 66 -> showProcesses.scrollDown();   // Arrow Down
 							case 77 -> handleMouseEvent();		   // Mouse event
+							case 67 -> { if (player != null) player.seek(true); }	// Arrow Right
+							case 68 -> { if (player != null) player.seek(false); }   // Arrow Left
 						}
 						showProcesses.draw();
 						refresh.set(true);
@@ -80,7 +100,41 @@ public class InputHandler {
 					refresh.set(true);
 					break;
 
+				case 104: // 'h' key
+					showProcesses.toggleHistory();
+					showProcesses.draw();
+					break;
+
+				case 43: // '+' key
+				case 61: // '=' key, '+' without shift
+					showProcesses.zoomIn();
+					showProcesses.draw();
+					break;
+
+				case 45: // '-' key
+					showProcesses.zoomOut();
+					showProcesses.draw();
+					break;
+
+				case 32: // space, pause or resume a replay
+					if (player != null) player.togglePause();
+					break;
+
+				case 46: // '.' key, next recorded frame
+				case 44: // ',' key, previous recorded frame
+					if (player != null) player.step(c == 46);
+					break;
+
+				case 62: // '>' key, faster replay
+					if (player != null) player.faster();
+					break;
+
+				case 60: // '<' key, slower replay
+					if (player != null) player.slower();
+					break;
+
 				case 13: // Enter key
+					int pageSize = showProcesses.getPageSize();
 					for (int i = 0; i < pageSize; i++) {
 						showProcesses.scrollDown();
 					}
@@ -0,0 +1,241 @@
+package jtop.terminal;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Double-buffered cell model of the terminal screen.
+ * <p>
+ * Components draw a frame into the back buffer with {@link #print} and
+ * {@link #fill}. {@link #flush(PrintStream)} then compares it against the
+ * frame that is currently on the terminal and emits only the changed spans,
+ * each prefixed with a cursor-addressing sequence. A frame whose content is
+ * identical to the previous one produces no output at all.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>No full-screen clear except after a resize or {@link #invalidate()}</li>
+ *	 <li>Styles are interned into small integer IDs, so cells compare as primitives</li>
+ *	 <li>Nearby changes on a row are merged into one span to save cursor moves</li>
+ *	 <li>The whole frame is written with a single {@code print} call</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe; callers must serialize drawing.
+ * </p>
+ */
+public class Screen {
+
+	private static final String ESC = "\033[";
+	private static final String RESET = "\033[0m";
+
+	/** Unchanged cells between two changes that are still rewritten instead of moving the cursor. */
+	private static final int MERGE_GAP = 6;
+
+	/** Style ID of unstyled cells. */
+	private static final int DEFAULT_STYLE = 0;
+
+	/** Style ID that never matches a cell, used to force the first style sequence of a frame. */
+	private static final int NO_STYLE = -1;
+
+	private final List<String> styles = new ArrayList<>(List.of(""));
+	private final Map<String, Integer> styleIds = new HashMap<>(Map.of("", DEFAULT_STYLE));
+
+	private int rows;
+	private int columns;
+
+	private char[] backChars = new char[0];
+	private int[] backStyles = new int[0];
+	private char[] frontChars = new char[0];
+	private int[] frontStyles = new int[0];
+
+	private boolean clearPending = true;
+	private final StringBuilder out = new StringBuilder(8192);
+
+	/**
+	 * Returns the number of rows of the buffer.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of columns of the buffer.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Resizes the buffers if the dimensions changed.
+	 * <p>
+	 * A resize forces the next flush to clear and repaint the whole screen,
+	 * since the terminal may have reflowed its content.
+	 * </p>
+	 *
+	 * @param rows the number of terminal rows
+	 * @param columns the number of terminal columns
+	 */
+	public void resize(int rows, int columns) {
+		if (rows == this.rows && columns == this.columns) return;
+
+		this.rows = rows;
+		this.columns = columns;
+		int cells = rows * columns;
+		backChars = new char[cells];
+		backStyles = new int[cells];
+		frontChars = new char[cells];
+		frontStyles = new int[cells];
+		invalidate();
+	}
+
+	/**
+	 * Forgets what is on the terminal, so the next flush repaints everything.
+	 */
+	public void invalidate() {
+		clearPending = true;
+	}
+
+	/**
+	 * Resets the back buffer to blank, unstyled cells.
+	 */
+	public void clear() {
+		Arrays.fill(backChars, ' ');
+		Arrays.fill(backStyles, DEFAULT_STYLE);
+	}
+
+	/**
+	 * Writes text into the back buffer, clipped at the end of the row.
+	 * <p>
+	 * Control characters are replaced by spaces so they cannot move the cursor.
+	 * </p>
+	 *
+	 * @param row the zero-based row
+	 * @param column the zero-based column
+	 * @param text the text to write; {@code null} writes nothing
+	 * @param style the ANSI style sequence for these cells, or "" for none
+	 * @return the column just after the last written cell
+	 */
+	public int print(int row, int column, String text, String style) {
+		if (text == null || row < 0 || row >= rows) return column;
+
+		int id = styleId(style);
+		int base = row * columns;
+		int end = Math.min(columns, column + text.length());
+		for (int c = Math.max(0, column); c < end; c++) {
+			char ch = text.charAt(c - column);
+			backChars[base + c] = ch < ' ' ? ' ' : ch;
+			backStyles[base + c] = id;
+		}
+		return Math.max(column, end);
+	}
+
+	/**
+	 * Fills a span of the back buffer with blanks of the given style.
+	 *
+	 * @param row the zero-based row
+	 * @param column the zero-based first column
+	 * @param length the number of cells
+	 * @param style the ANSI style sequence, or "" for none
+	 */
+	public void fill(int row, int column, int length, String style) {
+		if (row < 0 || row >= rows) return;
+
+		int id = styleId(style);
+		int base = row * columns;
+		int end = Math.min(columns, column + length);
+		for (int c = Math.max(0, column); c < end; c++) {
+			backChars[base + c] = ' ';
+			backStyles[base + c] = id;
+		}
+	}
+
+	/**
+	 * Emits the difference between the back buffer and the terminal.
+	 *
+	 * @param stream the stream connected to the terminal
+	 * @return the number of characters written; 0 if the frame was unchanged
+	 */
+	public int flush(PrintStream stream) {
+		out.setLength(0);
+		if (clearPending) {
+			// after a clear the terminal holds blank, unstyled cells
+			out.append(RESET).append(ESC).append("H").append(ESC).append("2J");
+			Arrays.fill(frontChars, ' ');
+			Arrays.fill(frontStyles, DEFAULT_STYLE);
+			clearPending = false;
+		}
+
+		int current = NO_STYLE;
+		for (int r = 0; r < rows; r++) {
+			int base = r * columns;
+			int c = 0;
+			while (c < columns) {
+				if (same(base + c)) {
+					c++;
+					continue;
+				}
+
+				// extend the span while changes keep appearing within MERGE_GAP cells
+				int start = c;
+				int last = c;
+				for (int k = c + 1; k < columns && k - last <= MERGE_GAP; k++) {
+					if (!same(base + k)) last = k;
+				}
+
+				out.append(ESC).append(r + 1).append(';').append(start + 1).append('H');
+				for (int k = start; k <= last; k++) {
+					int style = backStyles[base + k];
+					if (style != current) {
+						out.append(RESET).append(styles.get(style));
+						current = style;
+					}
+					out.append(backChars[base + k]);
+				}
+				c = last + 1;
+			}
+		}
+
+		if (out.length() == 0) return 0;
+
+		out.append(RESET);
+		System.arraycopy(backChars, 0, frontChars, 0, backChars.length);
+		System.arraycopy(backStyles, 0, frontStyles, 0, backStyles.length);
+
+		stream.print(out);
+		stream.flush();
+		return out.length();
+	}
+
+	/**
+	 * Returns whether a cell on the terminal already shows the back-buffer content.
+	 */
+	private boolean same(int i) {
+		return frontStyles[i] == backStyles[i] && frontChars[i] == backChars[i];
+	}
+
+	/**
+	 * Returns the interned ID of a style sequence.
+	 */
+	private int styleId(String style) {
+		if (style == null || style.isEmpty()) return DEFAULT_STYLE;
+
+		Integer id = styleIds.get(style);
+		if (id == null) {
+			id = styles.size();
+			styles.add(style);
+			styleIds.put(style, id);
+		}
+		return id;
+	}
+}
@@ -1,17 +1,48 @@
 package jtop.terminal;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Utility class to detect the current terminal window size.
  * <p>
  * Provides methods to retrieve the number of rows and columns,
  * allowing output to dynamically adjust to fit the screen.
+ * <p>
+ * The size is queried once and cached. It is only queried again after the
+ * terminal reports a resize through {@code SIGWINCH}, so repeated calls to
+ * {@link #getRows()} and {@link #getColumns()} do not spawn any process. If the
+ * signal cannot be installed, the cache expires after {@link #FALLBACK_TTL_MS}.
+ * The handler uses {@code sun.misc.Signal} from the {@code jdk.unsupported}
+ * module, which is looked up reflectively, so jtop neither needs that module to
+ * compile nor to run.
+ * Every actual change of the size increments {@link #getGeneration()}, which
+ * lets callers recompute layout values only when needed.
  */
 public class TerminalSize {
 
+	/** Cache lifetime when no resize signal is available. */
+	private static final long FALLBACK_TTL_MS = 1000;
+
+	private static volatile int rows = 24;
+	private static volatile int columns = 80;
+	private static volatile boolean stale = true;
+	private static volatile int generation;
+	private static long lastQuery;
+
+	/** Callbacks run after a resize signal changed the size. */
+	private static final List<Runnable> LISTENERS = new CopyOnWriteArrayList<>();
+
+	/** Whether a {@code SIGWINCH} handler keeps the cache up to date. */
+	private static final boolean SIGNAL_INSTALLED = installResizeHandler();
+
 	/**
 	 * Retrieves the terminal size by executing the "stty size" command.
+	 * <p>
+	 * This always spawns a process; prefer {@link #getRows()} and {@link #getColumns()},
+	 * which return the cached size.
 	 *
 	 * @return an array of two integers: {rows, columns}.
 	 *		 Defaults to {24, 80} if the size cannot be determined.
@@ -43,7 +74,8 @@ public class TerminalSize {
 	 * @return the number of rows in the current terminal, or 24 if unknown
 	 */
 	public static int getRows() {
-		return getTerminalSize()[0];
+		ensureCurrent();
+		return rows;
 	}
 
 	/**
@@ -52,6 +84,97 @@ public class TerminalSize {
 	 * @return the number of columns in the current terminal, or 80 if unknown
 	 */
 	public static int getColumns() {
-		return getTerminalSize()[1];
+		ensureCurrent();
+		return columns;
+	}
+
+	/**
+	 * Returns a counter that increases every time the terminal size changes.
+	 * <p>
+	 * Callers can store the value and recompute layout only when it differs.
+	 *
+	 * @return the current size generation
+	 */
+	public static int getGeneration() {
+		ensureCurrent();
+		return generation;
+	}
+
+	/**
+	 * Registers a callback that runs after the terminal was resized.
+	 * <p>
+	 * Callbacks run on the signal dispatch thread and should return quickly.
+	 *
+	 * @param listener the callback to run
+	 */
+	public static void addResizeListener(Runnable listener) {
+		LISTENERS.add(listener);
+	}
+
+	/**
+	 * Re-queries the size if the cached value may be outdated.
+	 *
+	 * @return {@code true} if the size changed
+	 */
+	private static synchronized boolean ensureCurrent() {
+		long now = System.currentTimeMillis();
+		if (!stale && (SIGNAL_INSTALLED || now - lastQuery < FALLBACK_TTL_MS)) {
+			return false;
+		}
+
+		stale = false;
+		lastQuery = now;
+		int[] size = getTerminalSize();
+		if (size[0] == rows && size[1] == columns) {
+			return false;
+		}
+
+		rows = size[0];
+		columns = size[1];
+		generation++;
+		return true;
+	}
+
+	/**
+	 * Installs a {@code SIGWINCH} handler that marks the cached size as stale.
+	 * <p>
+	 * Equivalent to {@code Signal.handle(new Signal("WINCH"), handler)}, with the
+	 * handler implemented through a {@link Proxy}.
+	 *
+	 * @return {@code true} if the handler was installed
+	 */
+	private static boolean installResizeHandler() {
+		try {
+			Class<?> signalClass = Class.forName("sun.misc.Signal");
+			Class<?> handlerClass = Class.forName("sun.misc.SignalHandler");
+			Object handler = Proxy.newProxyInstance(TerminalSize.class.getClassLoader(), new Class<?>[] { handlerClass },
+					(proxy, method, args) -> switch (method.getName()) {
+						case "handle" -> {
+							onResize();
+							yield null;
+						}
+						case "hashCode" -> System.identityHashCode(proxy);
+						case "equals" -> proxy == args[0];
+						default -> "SIGWINCH handler";
+					});
+			signalClass.getMethod("handle", signalClass, handlerClass)
+					.invoke(null, signalClass.getConstructor(String.class).newInstance("WINCH"), handler);
+			return true;
+		} catch (Throwable e) {
+			// unsupported platform, module not present, or signal already in use by the JVM
+			return false;
+		}
+	}
+
+	/**
+	 * Re-queries the size after a resize signal and notifies the listeners if it changed.
+	 */
+	private static void onResize() {
+		stale = true;
+		if (ensureCurrent()) {
+			for (Runnable listener : LISTENERS) {
+				listener.run();
+			}
+		}
 	}
-}
\ No newline at end of file
+}
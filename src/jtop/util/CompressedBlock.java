@@ -0,0 +1,300 @@
+package jtop.util;
+
+import java.util.Arrays;
+
+/**
+ * Append-only block of timestamped rows of {@code double} values in a compact bit encoding.
+ * <p>
+ * Each row holds one timestamp and a fixed number of values (columns). The
+ * encoding follows the Gorilla time-series format:
+ * </p>
+ * <ul>
+ *	 <li>Timestamps are stored as the change of the interval between rows
+ *		 (delta-of-delta), so a steady refresh interval costs one bit per row</li>
+ *	 <li>Each value is XORed with the previous value of its column; an
+ *		 unchanged value costs one bit, and otherwise only the bits between the
+ *		 leading and trailing zeros of the XOR are stored</li>
+ * </ul>
+ * <p>
+ * Rows can only be read back in order, through a {@link Reader}.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Bits are packed into one growing {@code long[]}; no per-row objects</li>
+ *	 <li>{@link #seal()} trims the array, so a full block costs only its encoded size</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public final class CompressedBlock {
+
+	private final int columns;
+	private final int maxRows;
+
+	private long[] words = new long[16];
+	private int bitCount;
+	private int rows;
+
+	private long firstTime;
+	private long lastTime;
+	private long lastDelta;
+
+	// per column: bits of the previous value and the window of its last stored XOR
+	private final long[] lastBits;
+	private final int[] lastLeading;
+	private final int[] lastTrailing;
+
+	/**
+	 * Creates an empty block.
+	 *
+	 * @param columns the number of values per row
+	 * @param maxRows the number of rows after which the block is full
+	 */
+	public CompressedBlock(int columns, int maxRows) {
+		this.columns = columns;
+		this.maxRows = maxRows;
+		this.lastBits = new long[columns];
+		this.lastLeading = new int[columns];
+		this.lastTrailing = new int[columns];
+		Arrays.fill(lastLeading, -1);
+	}
+
+	/**
+	 * Appends a row.
+	 *
+	 * @param time the timestamp, normally in milliseconds
+	 * @param values one value per column
+	 * @throws IllegalStateException if the block is full
+	 */
+	public void append(long time, double[] values) {
+		if (isFull()) {
+			throw new IllegalStateException("Block is full");
+		}
+
+		if (rows == 0) {
+			firstTime = time;
+			writeBits(time, 64);
+			for (int c = 0; c < columns; c++) {
+				lastBits[c] = Double.doubleToLongBits(values[c]);
+				writeBits(lastBits[c], 64);
+			}
+		} else {
+			long delta = time - lastTime;
+			writeTimestamp(delta - lastDelta);
+			lastDelta = delta;
+			for (int c = 0; c < columns; c++) {
+				writeValue(c, Double.doubleToLongBits(values[c]));
+			}
+		}
+		lastTime = time;
+		rows++;
+	}
+
+	/**
+	 * Releases the unused part of the bit array; call once the block is full.
+	 */
+	public void seal() {
+		words = Arrays.copyOf(words, (bitCount + 63) >>> 6);
+	}
+
+	/** @return whether {@link #append} would fail */
+	public boolean isFull() { return rows >= maxRows; }
+
+	/** @return the number of rows */
+	public int rows() { return rows; }
+
+	/** @return the number of values per row */
+	public int columns() { return columns; }
+
+	/** @return the timestamp of the first row; undefined while empty */
+	public long firstTime() { return firstTime; }
+
+	/** @return the timestamp of the last row; undefined while empty */
+	public long lastTime() { return lastTime; }
+
+	/**
+	 * Returns an estimate of the heap used by this block.
+	 *
+	 * @return the size in bytes, including the unused capacity of the bit array
+	 */
+	public long sizeBytes() {
+		return 64 + words.length * 8L + columns * 16L;
+	}
+
+	/**
+	 * Returns a reader positioned before the first row.
+	 * <p>
+	 * The reader sees the rows appended before this call.
+	 * </p>
+	 *
+	 * @return a new reader
+	 */
+	public Reader reader() {
+		return new Reader();
+	}
+
+	/**
+	 * Writes a delta-of-delta with a prefix selecting one of five widths.
+	 */
+	private void writeTimestamp(long dod) {
+		if (dod == 0) {
+			writeBits(0b0, 1);
+		} else if (dod >= -64 && dod <= 63) {
+			writeBits(0b10, 2);
+			writeBits(dod, 7);
+		} else if (dod >= -256 && dod <= 255) {
+			writeBits(0b110, 3);
+			writeBits(dod, 9);
+		} else if (dod >= -2048 && dod <= 2047) {
+			writeBits(0b1110, 4);
+			writeBits(dod, 12);
+		} else {
+			writeBits(0b1111, 4);
+			writeBits(dod, 64);
+		}
+	}
+
+	/**
+	 * Writes the XOR of a value with the previous value of its column.
+	 */
+	private void writeValue(int column, long bits) {
+		long xor = bits ^ lastBits[column];
+		lastBits[column] = bits;
+		if (xor == 0) {
+			writeBits(0b0, 1);
+			return;
+		}
+
+		// five bits hold at most 31 leading zeros
+		int leading = Math.min(31, Long.numberOfLeadingZeros(xor));
+		int trailing = Long.numberOfTrailingZeros(xor);
+		if (lastLeading[column] >= 0 && leading >= lastLeading[column] && trailing >= lastTrailing[column]) {
+			// fits into the window of the previous XOR
+			writeBits(0b10, 2);
+			writeBits(xor >>> lastTrailing[column], 64 - lastLeading[column] - lastTrailing[column]);
+		} else {
+			int length = 64 - leading - trailing;
+			writeBits(0b11, 2);
+			writeBits(leading, 5);
+			writeBits(length, 6); // 64 wraps to 0
+			writeBits(xor >>> trailing, length);
+			lastLeading[column] = leading;
+			lastTrailing[column] = trailing;
+		}
+	}
+
+	/**
+	 * Appends the low {@code n} bits of {@code value}, most significant first.
+	 */
+	private void writeBits(long value, int n) {
+		if (bitCount + n > words.length * 64L) {
+			words = Arrays.copyOf(words, words.length * 2);
+		}
+
+		int word = bitCount >>> 6;
+		int free = 64 - (bitCount & 63);
+		long v = n == 64 ? value : value & ((1L << n) - 1);
+		if (n <= free) {
+			words[word] |= v << (free - n);
+		} else {
+			words[word] |= v >>> (n - free);
+			words[word + 1] |= v << (64 - (n - free));
+		}
+		bitCount += n;
+	}
+
+	/**
+	 * Sequential reader of the rows of a block.
+	 */
+	public final class Reader {
+
+		private final int end = rows;
+		private int row;
+		private int position;
+
+		private long time;
+		private long delta;
+		private final long[] bits = new long[columns];
+		private final int[] leading = new int[columns];
+		private final int[] trailing = new int[columns];
+
+		private Reader() {}
+
+		/**
+		 * Advances to the next row.
+		 *
+		 * @return {@code false} if there are no more rows
+		 */
+		public boolean next() {
+			if (row >= end) return false;
+
+			if (row == 0) {
+				time = readBits(64);
+				for (int c = 0; c < columns; c++) bits[c] = readBits(64);
+			} else {
+				delta += readTimestamp();
+				time += delta;
+				for (int c = 0; c < columns; c++) readValue(c);
+			}
+			row++;
+			return true;
+		}
+
+		/** @return the timestamp of the current row */
+		public long time() { return time; }
+
+		/**
+		 * Returns a value of the current row.
+		 *
+		 * @param column the zero-based column
+		 * @return the value
+		 */
+		public double value(int column) {
+			return Double.longBitsToDouble(bits[column]);
+		}
+
+		private long readTimestamp() {
+			if (readBits(1) == 0) return 0;
+			if (readBits(1) == 0) return signed(readBits(7), 7);
+			if (readBits(1) == 0) return signed(readBits(9), 9);
+			if (readBits(1) == 0) return signed(readBits(12), 12);
+			return readBits(64);
+		}
+
+		private void readValue(int column) {
+			if (readBits(1) == 0) return;
+
+			if (readBits(1) == 1) {
+				leading[column] = (int) readBits(5);
+				int length = (int) readBits(6);
+				if (length == 0) length = 64;
+				trailing[column] = 64 - leading[column] - length;
+			}
+			int length = 64 - leading[column] - trailing[column];
+			bits[column] ^= readBits(length) << trailing[column];
+		}
+
+		private long readBits(int n) {
+			int word = position >>> 6;
+			int used = position & 63;
+			int available = 64 - used;
+			long v;
+			if (n <= available) {
+				v = (words[word] << used) >>> (64 - n);
+			} else {
+				int rest = n - available;
+				v = ((words[word] << used) >>> (64 - n)) | (words[word + 1] >>> (64 - rest));
+			}
+			position += n;
+			return v;
+		}
+
+		private static long signed(long v, int n) {
+			return (v << (64 - n)) >> (64 - n);
+		}
+	}
+}
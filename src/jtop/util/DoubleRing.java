@@ -0,0 +1,133 @@
+package jtop.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-capacity ring buffer of primitive {@code double} samples.
+ * <p>
+ * Keeps the most recent {@link #capacity()} values; adding to a full buffer
+ * overwrites the oldest one. Used for metric histories such as the header
+ * sparklines, where the memory use must not grow with the session length.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Values are stored in one {@code double[]} with a head index, never boxed</li>
+ *	 <li>{@link #add} and {@link #get} are O(1) and allocation-free</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe. A reader racing a writer sees every index in
+ * bounds, but possibly a mix of the samples before and after the write.
+ * </p>
+ */
+public final class DoubleRing {
+
+	private final double[] values;
+	private int head;
+	private int size;
+
+	/**
+	 * Creates an empty buffer.
+	 *
+	 * @param capacity the maximum number of samples kept, at least 1
+	 */
+	public DoubleRing(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.values = new double[capacity];
+	}
+
+	/**
+	 * Appends a sample, dropping the oldest one if the buffer is full.
+	 *
+	 * @param value the sample
+	 */
+	public void add(double value) {
+		values[head] = value;
+		head = head + 1 == values.length ? 0 : head + 1;
+		if (size < values.length) size++;
+	}
+
+	/**
+	 * Returns a stored sample.
+	 *
+	 * @param index the position from the oldest sample, below {@link #size()}
+	 * @return the sample
+	 */
+	public double get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of " + size);
+		}
+		int i = head - size + index;
+		return values[i < 0 ? i + values.length : i];
+	}
+
+	/**
+	 * Returns the most recent sample.
+	 *
+	 * @return the last added value, or NaN if the buffer is empty
+	 */
+	public double last() {
+		return size == 0 ? Double.NaN : get(size - 1);
+	}
+
+	/**
+	 * Returns the smallest of the newest {@code count} samples, ignoring NaN.
+	 *
+	 * @param count the number of recent samples to look at
+	 * @return the minimum, or NaN if there are no such samples
+	 */
+	public double min(int count) {
+		double min = Double.NaN;
+		for (int i = Math.max(0, size - count); i < size; i++) {
+			double v = get(i);
+			if (!Double.isNaN(v) && (Double.isNaN(min) || v < min)) min = v;
+		}
+		return min;
+	}
+
+	/**
+	 * Returns the largest of the newest {@code count} samples, ignoring NaN.
+	 *
+	 * @param count the number of recent samples to look at
+	 * @return the maximum, or NaN if there are no such samples
+	 */
+	public double max(int count) {
+		double max = Double.NaN;
+		for (int i = Math.max(0, size - count); i < size; i++) {
+			double v = get(i);
+			if (!Double.isNaN(v) && (Double.isNaN(max) || v > max)) max = v;
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the number of stored samples.
+	 *
+	 * @return the sample count, at most {@link #capacity()}
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of samples.
+	 *
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return values.length;
+	}
+
+	/**
+	 * Removes all samples.
+	 */
+	public void clear() {
+		Arrays.fill(values, 0);
+		head = 0;
+		size = 0;
+	}
+}
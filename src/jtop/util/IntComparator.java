@@ -0,0 +1,22 @@
+package jtop.util;
+
+/**
+ * Comparison function over primitive {@code int} values.
+ * <p>
+ * Used to order slot indices of columnar tables without boxing them into
+ * {@link Integer} objects, which {@link java.util.Comparator} would require.
+ * </p>
+ */
+@FunctionalInterface
+public interface IntComparator {
+
+	/**
+	 * Compares two values.
+	 *
+	 * @param a the first value
+	 * @param b the second value
+	 * @return a negative number, zero, or a positive number if {@code a} orders
+	 *		 before, together with, or after {@code b}
+	 */
+	int compare(int a, int b);
+}
@@ -0,0 +1,148 @@
+package jtop.util;
+
+/**
+ * Sorting of primitive {@code int} arrays with a custom {@link IntComparator}.
+ * <p>
+ * The JDK only sorts {@code int[]} in natural order; ordering slot indices by
+ * the columns they point to would otherwise need an {@code Integer[]} copy.
+ * {@link #selectTop} orders only the first {@code k} elements, for callers
+ * that display a small window of a large array.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Stable merge sort, so runs already in order from the previous frame stay cheap</li>
+ *	 <li>Short ranges are finished with insertion sort</li>
+ *	 <li>No allocation; the caller provides the scratch buffer</li>
+ *	 <li>Top-k selection uses a bounded heap: O(n log k) instead of O(n log n)</li>
+ * </ul>
+ * </p>
+ */
+public final class IntSort {
+
+	/** Ranges up to this length are sorted by insertion. */
+	private static final int INSERTION_THRESHOLD = 16;
+
+	private IntSort() {}
+
+	/**
+	 * Sorts the range {@code [from, to)} of {@code a} stably.
+	 *
+	 * @param a the array to sort
+	 * @param from the first index, inclusive
+	 * @param to the last index, exclusive
+	 * @param scratch a buffer of at least {@code to} elements
+	 * @param cmp the ordering
+	 */
+	public static void sort(int[] a, int from, int to, int[] scratch, IntComparator cmp) {
+		if (scratch.length < to) {
+			throw new IllegalArgumentException("Scratch buffer too small: " + scratch.length + " < " + to);
+		}
+		mergeSort(a, from, to, scratch, cmp);
+	}
+
+	/**
+	 * Moves the {@code k} smallest elements of {@code [from, to)} to the front of
+	 * the range, in sorted order. The order of the remaining elements is unspecified.
+	 * <p>
+	 * If {@code k} is at least half the range, a full stable sort is cheaper and is
+	 * done instead. Otherwise the selection is not stable, so {@code cmp} should
+	 * be a total order to get the same result on every call.
+	 * </p>
+	 *
+	 * @param a the array to partially sort
+	 * @param from the first index, inclusive
+	 * @param to the last index, exclusive
+	 * @param k the number of leading elements to order
+	 * @param scratch a buffer of at least {@code to} elements, used for the full-sort fallback
+	 * @param cmp the ordering
+	 * @return the number of leading elements that are now in order
+	 */
+	public static int selectTop(int[] a, int from, int to, int k, int[] scratch, IntComparator cmp) {
+		int n = to - from;
+		if (k <= 0) return 0;
+		if (k >= n / 2) {
+			sort(a, from, to, scratch, cmp);
+			return n;
+		}
+
+		// max-heap of the k best candidates so far, worst at the root
+		for (int i = (k >>> 1) - 1; i >= 0; i--) {
+			siftDown(a, from, i, k, cmp);
+		}
+		for (int i = from + k; i < to; i++) {
+			if (cmp.compare(a[i], a[from]) < 0) {
+				swap(a, i, from);
+				siftDown(a, from, 0, k, cmp);
+			}
+		}
+
+		// heap sort the selection in place
+		for (int end = k - 1; end > 0; end--) {
+			swap(a, from, from + end);
+			siftDown(a, from, 0, end, cmp);
+		}
+		return k;
+	}
+
+	/**
+	 * Restores the max-heap property below heap index {@code i} of the heap
+	 * stored in {@code a[base .. base + size)}.
+	 */
+	private static void siftDown(int[] a, int base, int i, int size, IntComparator cmp) {
+		int value = a[base + i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) break;
+			if (child + 1 < size && cmp.compare(a[base + child + 1], a[base + child]) > 0) child++;
+			if (cmp.compare(a[base + child], value) <= 0) break;
+			a[base + i] = a[base + child];
+			i = child;
+		}
+		a[base + i] = value;
+	}
+
+	private static void swap(int[] a, int i, int j) {
+		int t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+	}
+
+	private static void mergeSort(int[] a, int from, int to, int[] scratch, IntComparator cmp) {
+		if (to - from <= INSERTION_THRESHOLD) {
+			insertionSort(a, from, to, cmp);
+			return;
+		}
+
+		int mid = (from + to) >>> 1;
+		mergeSort(a, from, mid, scratch, cmp);
+		mergeSort(a, mid, to, scratch, cmp);
+
+		// halves already in order, nothing to merge
+		if (cmp.compare(a[mid - 1], a[mid]) <= 0) return;
+
+		System.arraycopy(a, from, scratch, from, to - from);
+		int i = from;
+		int j = mid;
+		for (int k = from; k < to; k++) {
+			if (j >= to || (i < mid && cmp.compare(scratch[i], scratch[j]) <= 0)) {
+				a[k] = scratch[i++];
+			} else {
+				a[k] = scratch[j++];
+			}
+		}
+	}
+
+	private static void insertionSort(int[] a, int from, int to, IntComparator cmp) {
+		for (int i = from + 1; i < to; i++) {
+			int value = a[i];
+			int j = i - 1;
+			while (j >= from && cmp.compare(a[j], value) > 0) {
+				a[j + 1] = a[j];
+				j--;
+			}
+			a[j + 1] = value;
+		}
+	}
+}
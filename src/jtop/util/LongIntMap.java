@@ -0,0 +1,186 @@
+package jtop.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to {@code int} values.
+ * <p>
+ * Used to index per-process state by a packed (pid, start time) key without
+ * boxing every lookup into {@link Long} and {@link Integer} objects. Typical use
+ * is mapping a key to a slot in parallel primitive arrays.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Linear probing over a power-of-two table</li>
+ *	 <li>Removal uses backward-shift deletion, so no tombstones accumulate</li>
+ *	 <li>No allocation except when the table grows</li>
+ * </ul>
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class LongIntMap {
+
+	/** Marker for an unused table entry; never a valid key. */
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	/** Maximum fill ratio before the table doubles in size. */
+	private static final float LOAD_FACTOR = 0.5f;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+	private int resizeAt;
+
+	/**
+	 * Creates a map sized for a typical process count.
+	 */
+	public LongIntMap() {
+		this(1024);
+	}
+
+	/**
+	 * Creates a map that can hold {@code expected} entries without growing.
+	 *
+	 * @param expected the expected number of entries
+	 */
+	public LongIntMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * Returns the value mapped to {@code key}.
+	 *
+	 * @param key the key, must not be {@link Long#MIN_VALUE}
+	 * @param missing the value to return if the key is absent
+	 * @return the mapped value, or {@code missing}
+	 */
+	public int get(long key, int missing) {
+		int i = slot(key);
+		long k;
+		while ((k = keys[i]) != EMPTY) {
+			if (k == key) return values[i];
+			i = (i + 1) & mask;
+		}
+		return missing;
+	}
+
+	/**
+	 * Maps {@code key} to {@code value}, replacing any previous mapping.
+	 *
+	 * @param key the key, must not be {@link Long#MIN_VALUE}
+	 * @param value the value
+	 */
+	public void put(long key, int value) {
+		int i = slot(key);
+		long k;
+		while ((k = keys[i]) != EMPTY) {
+			if (k == key) {
+				values[i] = value;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size >= resizeAt) {
+			grow();
+		}
+	}
+
+	/**
+	 * Removes the mapping for {@code key}, if present.
+	 *
+	 * @param key the key
+	 * @param missing the value to return if the key is absent
+	 * @return the previously mapped value, or {@code missing}
+	 */
+	public int remove(long key, int missing) {
+		int i = slot(key);
+		long k;
+		while ((k = keys[i]) != EMPTY) {
+			if (k == key) {
+				int old = values[i];
+				shiftBack(i);
+				size--;
+				return old;
+			}
+			i = (i + 1) & mask;
+		}
+		return missing;
+	}
+
+	/**
+	 * Returns the number of mappings.
+	 *
+	 * @return the number of keys in the map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all mappings without releasing the table.
+	 */
+	public void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * Closes the gap left at {@code gap} by moving later entries of the same probe run back.
+	 */
+	private void shiftBack(int gap) {
+		int i = gap;
+		while (true) {
+			i = (i + 1) & mask;
+			long k = keys[i];
+			if (k == EMPTY) break;
+
+			int home = slot(k);
+			// move k into the gap if its home slot is not between gap (exclusive) and i (inclusive)
+			if (((i - home) & mask) >= ((i - gap) & mask)) {
+				keys[gap] = k;
+				values[gap] = values[i];
+				gap = i;
+			}
+		}
+		keys[gap] = EMPTY;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(keys.length << 1);
+		for (int i = 0; i < oldKeys.length; i++) {
+			long k = oldKeys[i];
+			if (k == EMPTY) continue;
+
+			int j = slot(k);
+			while (keys[j] != EMPTY) j = (j + 1) & mask;
+			keys[j] = k;
+			values[j] = oldValues[i];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * Returns the home slot of a key, mixing the bits so sequential PIDs spread out.
+	 */
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+}
@@ -0,0 +1,132 @@
+package jtop.util;
+
+import jtop.config.Config;
+
+/**
+ * Formats byte quantities in a configurable unit.
+ * <p>
+ * Supports the units accepted by the {@code table.value.*.format} settings:
+ * bits ({@code b, Kb, Mb, Gb, Tb}) and bytes ({@code B, KB, MB, GB, TB}).
+ * Prefixes are decimal (1 KB = 1000 B), matching how disk and network
+ * throughput is usually quoted. Values are printed with a fixed number of
+ * decimal places, or in scientific notation if configured.
+ * </p>
+ *
+ * <p>
+ * Performance notes:
+ * <ul>
+ *	 <li>Fixed-point output is built without {@link String#format}</li>
+ *	 <li>Instances are immutable and can be shared between threads</li>
+ * </ul>
+ * </p>
+ */
+public final class UnitFormat {
+
+	private static final String[] UNITS = {"b", "Kb", "Mb", "Gb", "Tb", "B", "KB", "MB", "GB", "TB"};
+
+	private final String unit;
+	private final double bytesPerUnit;
+	private final int accuracy;
+	private final boolean scientific;
+
+	/**
+	 * Creates a formatter.
+	 *
+	 * @param unit one of {@code b, Kb, Mb, Gb, Tb, B, KB, MB, GB, TB}; anything else falls back to {@code B}
+	 * @param accuracy the number of decimal places
+	 * @param scientific {@code true} to print values like {@code 1.234E6}
+	 */
+	public UnitFormat(String unit, int accuracy, boolean scientific) {
+		int index = indexOf(unit);
+		if (index < 0) {
+			System.err.println("Invalid unit: " + unit + ", using B");
+			index = 5;
+		}
+
+		this.unit = UNITS[index];
+		boolean bits = index < 5;
+		double scale = Math.pow(1000, index % 5);
+		this.bytesPerUnit = bits ? scale / 8 : scale;
+		this.accuracy = Math.max(0, accuracy);
+		this.scientific = scientific;
+	}
+
+	/**
+	 * Creates a formatter from the settings of a table column.
+	 * <p>
+	 * Reads {@code table.value.<column>.format}, {@code .accuracy} and
+	 * {@code .scientificNotation}.
+	 * </p>
+	 *
+	 * @param config the loaded configuration
+	 * @param column the column name, e.g. "DISK_READ"
+	 * @return the formatter
+	 */
+	public static UnitFormat fromConfig(Config config, String column) {
+		String prefix = "table.value." + column + ".";
+		return new UnitFormat(
+				config.getString(prefix + "format", "MB"),
+				config.getInt(prefix + "accuracy", 3),
+				config.getBoolean(prefix + "scientificNotation", false));
+	}
+
+	/**
+	 * Returns the unit values are converted to.
+	 *
+	 * @return the unit symbol, e.g. "MB"
+	 */
+	public String getUnit() {
+		return unit;
+	}
+
+	/**
+	 * Converts a quantity of bytes to the configured unit and formats it.
+	 *
+	 * @param bytes the quantity in bytes, e.g. bytes per second
+	 * @return the number without unit symbol
+	 */
+	public String format(double bytes) {
+		double value = bytes / bytesPerUnit;
+		if (scientific) {
+			return String.format("%." + accuracy + "E", value);
+		}
+		return fixed(value, accuracy);
+	}
+
+	/**
+	 * Formats a number with a fixed number of decimal places.
+	 *
+	 * @param value the number; NaN is shown as "?"
+	 * @param decimals the number of decimal places
+	 * @return the formatted number
+	 */
+	public static String fixed(double value, int decimals) {
+		if (Double.isNaN(value)) return "?";
+
+		long factor = 1;
+		for (int i = 0; i < decimals; i++) factor *= 10;
+		if (decimals > 18 || Double.isInfinite(value) || Math.abs(value) * factor >= Long.MAX_VALUE / 2) {
+			// beyond the range of the integer path
+			return String.format("%." + decimals + "f", value);
+		}
+		long scaled = Math.round(Math.abs(value) * factor);
+
+		StringBuilder sb = new StringBuilder(24);
+		if (value < 0 && scaled != 0) sb.append('-');
+		sb.append(scaled / factor);
+		if (decimals > 0) {
+			sb.append('.');
+			String fraction = Long.toString(scaled % factor);
+			for (int i = fraction.length(); i < decimals; i++) sb.append('0');
+			sb.append(fraction);
+		}
+		return sb.toString();
+	}
+
+	private static int indexOf(String unit) {
+		for (int i = 0; i < UNITS.length; i++) {
+			if (UNITS[i].equals(unit)) return i;
+		}
+		return -1;
+	}
+}